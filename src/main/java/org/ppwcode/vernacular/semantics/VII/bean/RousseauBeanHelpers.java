@@ -18,16 +18,30 @@ package org.ppwcode.vernacular.semantics.VII.bean;
 
 
 import org.ppwcode.vernacular.exception.IV.CompoundSemanticException;
+import org.ppwcode.vernacular.semantics.VII.exception.CompoundPropertyException;
 import org.ppwcode.vernacular.semantics.VII.exception.PropertyException;
+import org.ppwcode.vernacular.semantics.VII.util.BeanMetadata;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
 
 import java.beans.PropertyDescriptor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static org.apache.commons.beanutils.PropertyUtils.getPropertyDescriptors;
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.pre;
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
-import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.propertyValue;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
 
 
 /**
@@ -69,18 +83,56 @@ public final class RousseauBeanHelpers {
   public static Set<RousseauBean> directUpstreamRousseauBeans(RousseauBean rb) {
     assert preArgumentNotNull(rb, "rb");
     Set<RousseauBean> result = new HashSet<>();
-    PropertyDescriptor[] pds = getPropertyDescriptors(rb);
-    for (PropertyDescriptor pd : pds) {
-      if (RousseauBean.class.isAssignableFrom(pd.getPropertyType())) {
-        RousseauBean upstreamCandidate = propertyValue(rb, pd.getName());
-        if (upstreamCandidate != null) {
-          result.add(upstreamCandidate);
-        }
+    for (PropertyAccessor accessor : upstreamPlan(rb.getClass())) {
+      RousseauBean upstreamCandidate = (RousseauBean)accessor.read(rb);
+      if (upstreamCandidate != null) {
+        result.add(upstreamCandidate);
       }
     }
     return result;
   }
 
+  /**
+   * The accessors of the readable properties of {@code type} whose static type is a {@link RousseauBean}.
+   * This is computed once per type, and cached with the type (see {@link #UPSTREAM_PLANS}).
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_type != null"),
+    post = {
+      @Expression("result != null"),
+      @Expression("for (PropertyDescriptor pd : beanMetadata(_type).propertyDescriptors) {" +
+                    "pd.readMethod != null && pd.propertyType != null && " +
+                      "RousseauBean.class.isAssignableFrom(pd.propertyType) ? " +
+                      "Arrays.contains(result, beanMetadata(_type).propertyAccessor(pd.name))" +
+                  "}")
+    }
+  )
+  */
+  static PropertyAccessor[] upstreamPlan(Class<?> type) {
+    assert type != null;
+    return UPSTREAM_PLANS.get(type);
+  }
+
+  /**
+   * The {@link #upstreamPlan(Class) upstream plans} of the types for which it was requested. The plan is attached
+   * to the {@link Class} object, as the {@link BeanMetadata} it is derived from.
+   */
+  private static final ClassValue<PropertyAccessor[]> UPSTREAM_PLANS = new ClassValue<PropertyAccessor[]>() {
+    @Override
+    protected PropertyAccessor[] computeValue(Class<?> type) {
+      BeanMetadata metadata = beanMetadata(type);
+      List<PropertyAccessor> plan = new ArrayList<>();
+      for (PropertyDescriptor pd : metadata.getPropertyDescriptors()) {
+        if (pd.getReadMethod() != null && pd.getPropertyType() != null &&
+            RousseauBean.class.isAssignableFrom(pd.getPropertyType())) {
+          plan.add(metadata.propertyAccessor(pd.getName()));
+        }
+      }
+      return plan.toArray(new PropertyAccessor[plan.size()]);
+    }
+  };
+
   /**
    * All upstream {@link RousseauBean RousseauBeans} starting from {@code rb}.
    * These are the beans that are simple properties of {@code rb}. Upstream means
@@ -100,22 +152,100 @@ public final class RousseauBeanHelpers {
   */
   public static Set<RousseauBean> upstreamRousseauBeans(RousseauBean rb) {
     assert preArgumentNotNull(rb, "rb");
-    LinkedList<RousseauBean> agenda = new LinkedList<>();
+    Set<RousseauBean> visited = newVisitedSet();
+    Deque<RousseauBean> agenda = new ArrayDeque<>();
+    visited.add(rb);
     agenda.add(rb);
-    int i = 0;
-    while (i < agenda.size()) {
-      RousseauBean current = agenda.get(i);
-      directUpstreamRousseauBeans(current).stream().filter(rousseauBean
-              -> !agenda.contains(rousseauBean)).forEach(agenda::add);
-      i++;
+    while (! agenda.isEmpty()) {
+      RousseauBean current = agenda.poll();
+      addUnvisitedUpstreamRousseauBeans(current, visited, agenda);
+    }
+    return visited;
+  }
+
+  /**
+   * <p>All upstream {@link RousseauBean RousseauBeans} starting from {@code rb}, as a lazy stream.
+   *   This contains the same beans as {@link #upstreamRousseauBeans(RousseauBean)}, in breadth-first order,
+   *   starting with {@code rb} itself. The graph is only traversed as far as the beans are consumed, so that
+   *   short-circuiting operations, like {@link Stream#anyMatch(java.util.function.Predicate)} and
+   *   {@link Stream#findFirst()}, stop the traversal.</p>
+   * <p>The stream is sequential. It can be made {@link Stream#parallel() parallel}: the traversal is then split
+   *   over the agenda of beans whose upstream beans still need to be visited. Each bean is still reported once,
+   *   but not in breadth-first order.</p>
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_rb != null"),
+    post = {
+      @Expression("result != null"),
+      @Expression("result.collect(toSet()) == upstreamRousseauBeans(_rb)")
+    }
+  )
+  */
+  public static Stream<RousseauBean> upstreamRousseauBeanStream(RousseauBean rb) {
+    assert preArgumentNotNull(rb, "rb");
+    return StreamSupport.stream(new UpstreamSpliterator(rb, UpstreamSpliterator.UNBOUNDED), false);
+  }
+
+  /**
+   * The upstream {@link RousseauBean RousseauBeans} starting from {@code rb} that can be reached over at most
+   * {@code maxDepth} to-one associations, as a lazy stream. With {@code maxDepth == 0}, this only contains
+   * {@code rb} itself. Apart from that, this behaves like {@link #upstreamRousseauBeanStream(RousseauBean)}.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_rb != null"),
+      @Expression("_maxDepth >= 0")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("_maxDepth == 0 ? result.collect(toSet()) == {_rb}"),
+      @Expression("_maxDepth > 0 ? result.collect(toSet()) == {_rb} U " +
+                   "union (RousseauBean rbr : directUpstreamRousseauBeans(_rb)) " +
+                     "{upstreamRousseauBeanStream(rbr, _maxDepth - 1).collect(toSet())}")
+    }
+  )
+  */
+  public static Stream<RousseauBean> upstreamRousseauBeanStream(RousseauBean rb, int maxDepth) {
+    assert preArgumentNotNull(rb, "rb");
+    assert pre(maxDepth >= 0);
+    return StreamSupport.stream(new UpstreamSpliterator(rb, maxDepth), false);
+  }
+
+  /**
+   * The set that keeps track of the beans that are already visited in a traversal. Semantic beans are used by
+   * reference (see {@link SemanticBean}), so this is an identity based set, that does not call
+   * {@link Object#hashCode()} or {@link Object#equals(Object)} of the beans.
+   */
+  private static Set<RousseauBean> newVisitedSet() {
+    return Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+
+  /**
+   * Add the direct upstream beans of {@code current} that are not {@code visited} yet to {@code visited}
+   * and to {@code agenda}. This reads the {@link #upstreamPlan(Class) upstream plan} of {@code current}
+   * directly, without creating the set of {@link #directUpstreamRousseauBeans(RousseauBean)}.
+   */
+  private static void addUnvisitedUpstreamRousseauBeans(RousseauBean current,
+                                                        Set<RousseauBean> visited,
+                                                        Deque<RousseauBean> agenda) {
+    for (PropertyAccessor accessor : upstreamPlan(current.getClass())) {
+      RousseauBean upstreamCandidate = (RousseauBean)accessor.read(current);
+      if (upstreamCandidate != null && visited.add(upstreamCandidate)) {
+        agenda.add(upstreamCandidate);
+      }
     }
-    return new HashSet<>(agenda);
   }
 
   /**
    * Normalize {@code rb} and all other {@link RousseauBean RousseauBeans} that can be reached
    * from {@code rb} over to-one associations (upstream). At the same time, check the civility
    * and gather all {@link PropertyException PropertyExceptions} that might occur.
+   * Everything happens on the calling thread: the beans are visited breadth-first, and each bean is
+   * normalized immediately before its {@link RousseauBean#wildExceptions() wild exceptions} are gathered.
+   * See {@link #normalizeAndCheckCivilityOnUpstreamRousseauBeans(RousseauBean, ForkJoinPool)} for a
+   * parallel variant.
    */
   /*
   @MethodContract(
@@ -129,23 +259,210 @@ public final class RousseauBeanHelpers {
   */
   public static CompoundSemanticException normalizeAndCheckCivilityOnUpstreamRousseauBeans(RousseauBean rb) {
     assert preArgumentNotNull(rb, "rb");
-    LinkedList<RousseauBean> agenda = new LinkedList<>();
+    Set<RousseauBean> visited = newVisitedSet();
+    Deque<RousseauBean> agenda = new ArrayDeque<>();
+    visited.add(rb);
     agenda.add(rb);
-    int i = 0;
     CompoundSemanticException cpe = new CompoundSemanticException("UPSTREAM_EXCEPTIONS", null);
-    while (i < agenda.size()) {
-      RousseauBean current = agenda.get(i);
+    while (! agenda.isEmpty()) {
+      RousseauBean current = agenda.poll();
       current.normalize();
       current.wildExceptions().getElementExceptions().forEach(cpe::addElementException);
-      Set<RousseauBean> durbs = directUpstreamRousseauBeans(current);
-      for (RousseauBean rousseauBean : durbs) {
-        if (! agenda.contains(rousseauBean)) {
-          agenda.add(rousseauBean);
+      addUnvisitedUpstreamRousseauBeans(current, visited, agenda);
+    }
+    return cpe;
+  }
+
+  /**
+   * Normalize {@code rb} and the other {@link RousseauBean RousseauBeans} that can be reached
+   * from {@code rb} over to-one associations (upstream), and gather their
+   * {@link PropertyException PropertyExceptions}, until {@code maxViolations} exceptions are found.
+   * The beans are visited breadth-first, as in {@link #upstreamRousseauBeanStream(RousseauBean)}, and each
+   * bean is normalized immediately before its {@link RousseauBean#wildExceptions() wild exceptions} are
+   * gathered. Once {@code maxViolations} exceptions are found, the traversal stops: the beans that are not
+   * visited yet are not normalized. The result is empty if and only if all upstream beans are civilized.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_rb != null"),
+      @Expression("_maxViolations > 0")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("result.size <= _maxViolations"),
+      @Expression("result.allElementExceptions.subsetOf(" +
+                    "union (RousseauBean rbr : upstreamRousseauBeans(_rb)) {rbr.wildExceptions().allElementExceptions})"),
+      @Expression("result.size < _maxViolations ? " +
+                    "normalizeAndCheckCivilityOnUpstreamRousseauBeans(_rb).allElementExceptions == result.allElementExceptions")
+    }
+  )
+  */
+  public static CompoundSemanticException normalizeAndCheckCivilityOnUpstreamRousseauBeans(RousseauBean rb,
+                                                                                          int maxViolations) {
+    assert preArgumentNotNull(rb, "rb");
+    assert pre(maxViolations > 0);
+    CompoundSemanticException cpe = new CompoundSemanticException("UPSTREAM_EXCEPTIONS", null);
+    Iterator<RousseauBean> upstream = upstreamRousseauBeanStream(rb).iterator();
+    while (cpe.getSize() < maxViolations && upstream.hasNext()) {
+      RousseauBean current = upstream.next();
+      current.normalize();
+      addWildExceptions(cpe, current, maxViolations);
+    }
+    return cpe;
+  }
+
+  /**
+   * Are {@code rb} and all other {@link RousseauBean RousseauBeans} that can be reached from {@code rb}
+   * over to-one associations (upstream) {@link RousseauBean#civilized() civilized}? The traversal stops at
+   * the first bean that is not civilized. The beans are not normalized. This is the same as
+   * {@code upstreamRousseauBeanStream(rb).allMatch(RousseauBean::civilized)}, which can also be used
+   * {@link Stream#parallel() in parallel}.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_rb != null"),
+    post = @Expression("for (RousseauBean rbr : upstreamRousseauBeans(_rb)) {rbr.civilized}")
+  )
+  */
+  public static boolean allCivilized(RousseauBean rb) {
+    assert preArgumentNotNull(rb, "rb");
+    return upstreamRousseauBeanStream(rb).allMatch(RousseauBean::civilized);
+  }
+
+  /**
+   * <p>Normalize {@code rb} and all other {@link RousseauBean RousseauBeans} that can be reached
+   *   from {@code rb} over to-one associations (upstream), and check their civility in parallel, using
+   *   {@code pool}. The result is the same as for
+   *   {@link #normalizeAndCheckCivilityOnUpstreamRousseauBeans(RousseauBean)}.</p>
+   * <p>This happens in 3 phases:</p>
+   * <ol>
+   *   <li>The upstream graph is discovered in {@code pool}. The upstream beans of different beans are read
+   *     concurrently, and the beans that are already visited are tracked in a concurrent set. Semantic beans
+   *     have identity equality (see {@link SemanticBean}), so each bean is visited once.</li>
+   *   <li>{@link RousseauBean#normalize()} is called on each bean once, sequentially, on the calling thread.
+   *     This happens after the complete upstream graph is discovered, and before {@link RousseauBean#wildExceptions()}
+   *     is called on any bean. Normalization does not change the nominal state of a bean, so it has no influence
+   *     on the upstream graph. The order in which the beans are normalized is not specified.</li>
+   *   <li>{@link RousseauBean#wildExceptions()} is called on each bean once, in {@code pool}, concurrently for
+   *     different beans. Implementations can read upstream beans while another thread does the same, but should
+   *     not change any state. The results are merged in the resulting compound on the calling thread.</li>
+   * </ol>
+   * <p>If discovering the graph, or checking the civility of a bean, fails, the exception is thrown on the calling
+   *   thread.</p>
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_rb != null"),
+      @Expression("_pool != null")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("for (RousseauBean rbr : upstreamRousseauBeans(_rb)) {rbr.normalize()}"),
+      @Expression("result.allElementExceptions == union (RousseauBean rbr : upstreamRousseauBeans(_rb)) {rbr.wildExceptions().allElementExceptions}")
+    }
+  )
+  */
+  public static CompoundSemanticException normalizeAndCheckCivilityOnUpstreamRousseauBeans(RousseauBean rb,
+                                                                                          ForkJoinPool pool) {
+    assert preArgumentNotNull(rb, "rb");
+    assert preArgumentNotNull(pool, "pool");
+    Set<RousseauBean> visited = ConcurrentHashMap.newKeySet();
+    visited.add(rb);
+    pool.invoke(new UpstreamDiscovery(null, rb, visited));
+    RousseauBean[] rbs = visited.toArray(new RousseauBean[visited.size()]);
+    for (RousseauBean rbr : rbs) {
+      rbr.normalize();
+    }
+    CompoundPropertyException[] wildExceptions = new CompoundPropertyException[rbs.length];
+    pool.invoke(new WildExceptionsCollection(null, rbs, wildExceptions, 0, rbs.length));
+    CompoundSemanticException cpe = new CompoundSemanticException("UPSTREAM_EXCEPTIONS", null);
+    for (CompoundPropertyException rbrExc : wildExceptions) {
+      rbrExc.getElementExceptions().forEach(cpe::addElementException);
+    }
+    return cpe;
+  }
+
+  /**
+   * Visits the upstream beans of a bean that are not visited yet, each in a task of its own. Tasks do not wait
+   * for the tasks they fork, so that long chains of upstream beans do not need a deep stack. The root task
+   * completes when all upstream beans are visited.
+   */
+  private static final class UpstreamDiscovery extends CountedCompleter<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    UpstreamDiscovery(CountedCompleter<?> completer, RousseauBean rb, Set<RousseauBean> visited) {
+      super(completer);
+      $rb = rb;
+      $visited = visited;
+    }
+
+    private final RousseauBean $rb;
+
+    private final Set<RousseauBean> $visited;
+
+    @Override
+    public void compute() {
+      for (PropertyAccessor accessor : upstreamPlan($rb.getClass())) {
+        RousseauBean upstreamCandidate = (RousseauBean)accessor.read($rb);
+        if (upstreamCandidate != null && $visited.add(upstreamCandidate)) {
+          addToPendingCount(1);
+          new UpstreamDiscovery(this, upstreamCandidate, $visited).fork();
         }
       }
-      i++;
+      tryComplete();
     }
-    return cpe;
+
+  }
+
+  /**
+   * The number of beans for which {@link WildExceptionsCollection} calls {@link RousseauBean#wildExceptions()}
+   * in one task.
+   */
+  private static final int WILD_EXCEPTIONS_GRANULARITY = 16;
+
+  /**
+   * Stores the {@link RousseauBean#wildExceptions()} of the beans in a range of {@code rbs} at the same index in
+   * {@code wildExceptions}, splitting the range over forked tasks.
+   */
+  private static final class WildExceptionsCollection extends CountedCompleter<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    WildExceptionsCollection(CountedCompleter<?> completer, RousseauBean[] rbs,
+                             CompoundPropertyException[] wildExceptions, int from, int to) {
+      super(completer);
+      $rbs = rbs;
+      $wildExceptions = wildExceptions;
+      $from = from;
+      $to = to;
+    }
+
+    private final RousseauBean[] $rbs;
+
+    private final CompoundPropertyException[] $wildExceptions;
+
+    private final int $from;
+
+    private final int $to;
+
+    @Override
+    public void compute() {
+      int to = $to;
+      while (to - $from > WILD_EXCEPTIONS_GRANULARITY) {
+        int middle = ($from + to) >>> 1;
+        addToPendingCount(1);
+        new WildExceptionsCollection(this, $rbs, $wildExceptions, middle, to).fork();
+        to = middle;
+      }
+      for (int i = $from; i < to; i++) {
+        $wildExceptions[i] = $rbs[i].wildExceptions();
+      }
+      tryComplete();
+    }
+
   }
 
   /**
@@ -190,4 +507,45 @@ public final class RousseauBeanHelpers {
     return cpe;
   }
 
+  /**
+   * Gather the {@link RousseauBean#wildExceptions() wild exceptions} from the {@link RousseauBean RousseauBeans}
+   * in {@code rbs}, until {@code maxViolations} exceptions are found. After that, the remaining beans are not
+   * checked. The result is empty if and only if all beans in {@code rbs} are civilized.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_rbs != null"),
+      @Expression("_maxViolations > 0")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("result.size <= _maxViolations"),
+      @Expression("result.allElementExceptions.subsetOf(wildExceptions(_rbs).allElementExceptions)"),
+      @Expression("result.size < _maxViolations ? wildExceptions(_rbs).allElementExceptions == result.allElementExceptions")
+    }
+  )
+  */
+  public static CompoundSemanticException wildExceptions(Set<? extends RousseauBean> rbs, int maxViolations) {
+    assert preArgumentNotNull(rbs, "rbs");
+    assert pre(maxViolations > 0);
+    CompoundSemanticException cpe = new CompoundSemanticException("UPSTREAM_EXCEPTIONS", null);
+    Iterator<? extends RousseauBean> iter = rbs.iterator();
+    while (cpe.getSize() < maxViolations && iter.hasNext()) {
+      addWildExceptions(cpe, iter.next(), maxViolations);
+    }
+    return cpe;
+  }
+
+  /**
+   * Add the wild exceptions of {@code rb} to {@code cpe}, as long as {@code cpe} has less than
+   * {@code maxViolations} element exceptions.
+   */
+  private static void addWildExceptions(CompoundSemanticException cpe, RousseauBean rb, int maxViolations) {
+    Iterator<PropertyException> iter = rb.wildExceptions().getElementExceptions().iterator();
+    while (cpe.getSize() < maxViolations && iter.hasNext()) {
+      cpe.addElementException(iter.next());
+    }
+  }
+
 }
@@ -0,0 +1,186 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.bean;
+
+
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import static org.ppwcode.vernacular.semantics.VII.bean.RousseauBeanHelpers.upstreamPlan;
+
+
+/**
+ * <p>A lazy, breadth-first traversal of the {@link RousseauBeanHelpers#upstreamRousseauBeans(RousseauBean) upstream
+ *   beans} of a {@link RousseauBean}, up to a maximum depth. The upstream beans of a bean are only read when the bean
+ *   is reported, or when the traversal is split.</p>
+ * <p>Splitting hands over the second half of the agenda to a new spliterator. All spliterators that are split
+ *   from the same root share the depth at which each bean was found first, in a concurrent map. A bean is reported
+ *   only by the spliterator that finds it first. If another spliterator finds it later over a shorter path, it
+ *   visits its upstream beans again, without reporting it again, so that no bean within the maximum depth is
+ *   missed.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+final class UpstreamSpliterator implements Spliterator<RousseauBean> {
+
+  /**
+   * The maximum depth that means there is no maximum.
+   */
+  static final int UNBOUNDED = Integer.MAX_VALUE;
+
+  /*<construction>*/
+  //-------------------------------------------------------------------------
+
+  UpstreamSpliterator(RousseauBean rb, int maxDepth) {
+    assert rb != null;
+    assert maxDepth >= 0;
+    $depths = new ConcurrentHashMap<>();
+    $maxDepth = maxDepth;
+    $agenda = new ArrayDeque<>();
+    $depths.put(rb, 0);
+    $agenda.add(new Entry(rb, 0, true));
+  }
+
+  private UpstreamSpliterator(ConcurrentMap<RousseauBean, Integer> depths, int maxDepth, Deque<Entry> agenda) {
+    $depths = depths;
+    $maxDepth = maxDepth;
+    $agenda = agenda;
+  }
+
+  /*</construction>*/
+
+
+
+  /**
+   * The depth at which each bean that is found by this spliterator, or any spliterator it shares a root with,
+   * was found over the shortest path known. Semantic beans have identity equality (see {@link SemanticBean}).
+   */
+  private final ConcurrentMap<RousseauBean, Integer> $depths;
+
+  private final int $maxDepth;
+
+  private final Deque<Entry> $agenda;
+
+  /**
+   * A bean on the agenda, with the depth at which it was found. Only {@code report} entries are reported.
+   * The others are there to visit the upstream beans of a bean again, when it is found over a shorter path.
+   */
+  private static final class Entry {
+
+    Entry(RousseauBean rb, int depth, boolean report) {
+      this.rb = rb;
+      this.depth = depth;
+      this.report = report;
+    }
+
+    final RousseauBean rb;
+
+    final int depth;
+
+    final boolean report;
+
+    boolean expanded;
+
+  }
+
+  /**
+   * Put the upstream beans of {@code entry} on the agenda, if they are within the maximum depth, and not
+   * found before over a path that is at most as long.
+   */
+  private void expand(Entry entry) {
+    assert ! entry.expanded;
+    entry.expanded = true;
+    if (entry.depth >= $maxDepth) {
+      return;
+    }
+    int depth = entry.depth + 1;
+    for (PropertyAccessor accessor : upstreamPlan(entry.rb.getClass())) {
+      RousseauBean upstreamCandidate = (RousseauBean)accessor.read(entry.rb);
+      if (upstreamCandidate != null) {
+        Integer previous = $depths.putIfAbsent(upstreamCandidate, depth);
+        if (previous == null) {
+          $agenda.add(new Entry(upstreamCandidate, depth, true));
+        }
+        else if ($maxDepth != UNBOUNDED) {
+          // in a split traversal, the bean might have been found before over a longer path
+          while (depth < previous && ! $depths.replace(upstreamCandidate, previous, depth)) {
+            previous = $depths.get(upstreamCandidate);
+          }
+          if (depth < previous) {
+            $agenda.add(new Entry(upstreamCandidate, depth, false));
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super RousseauBean> action) {
+    Entry entry = $agenda.poll();
+    while (entry != null) {
+      if (! entry.expanded) {
+        expand(entry);
+      }
+      if (entry.report) {
+        action.accept(entry.rb);
+        return true;
+      }
+      entry = $agenda.poll();
+    }
+    return false;
+  }
+
+  /**
+   * If there is only 1 bean on the agenda, it is expanded first, so that there is something to hand over.
+   */
+  @Override
+  public Spliterator<RousseauBean> trySplit() {
+    Entry head = $agenda.peek();
+    if ($agenda.size() == 1 && ! head.expanded) {
+      expand(head);
+    }
+    int size = $agenda.size();
+    if (size < 2) {
+      return null;
+    }
+    Deque<Entry> split = new ArrayDeque<>();
+    for (int i = size / 2; i < size; i++) {
+      split.addFirst($agenda.pollLast());
+    }
+    return new UpstreamSpliterator($depths, $maxDepth, split);
+  }
+
+  /**
+   * The size of the upstream graph is not known in advance.
+   */
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return DISTINCT | NONNULL;
+  }
+
+}
@@ -0,0 +1,163 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.exception;
+
+
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static org.ppwcode.vernacular.exception.IV.ApplicationException.eqn;
+import static org.ppwcode.vernacular.semantics.VII.util.CapturePolicy.CLONE;
+import static org.ppwcode.vernacular.semantics.VII.util.CapturePolicy.SHARE;
+import static org.ppwcode.vernacular.semantics.VII.util.CapturePolicy.SNAPSHOT_LAZILY;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.safeReference;
+
+
+/**
+ * <p>A value captured by a property exception, according to a {@link CapturePolicy}. The snapshot of the value
+ *   is made at most once: at capture time with {@link CapturePolicy#CLONE}, at first use with
+ *   {@link CapturePolicy#SNAPSHOT_LAZILY}, and never with {@link CapturePolicy#SHARE}. {@link #get()} hands out
+ *   a safe reference to the snapshot. {@link #like(CapturedValue)} compares the snapshots themselves, without
+ *   making copies.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+/*
+@Invars(@Expression("capturePolicy != null"))
+*/
+final class CapturedValue implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /*<construction>*/
+  //-------------------------------------------------------------------------
+
+  /*
+  @MethodContract(
+    pre  = @Expression("_capturePolicy != null"),
+    post = {
+      @Expression("result.capturePolicy == _capturePolicy"),
+      @Expression("_capturePolicy == SHARE ? result.get() == _value : result.get() == safeReference(_value)")
+    }
+  )
+  */
+  static CapturedValue capture(final CapturePolicy capturePolicy, final Object value) {
+    assert capturePolicy != null;
+    return new CapturedValue(capturePolicy, capturePolicy == CLONE ? safeReference(value) : value);
+  }
+
+  private CapturedValue(final CapturePolicy capturePolicy, final Object value) {
+    $capturePolicy = capturePolicy;
+    $value = value;
+    $snapshotTaken = capturePolicy != SNAPSHOT_LAZILY;
+  }
+
+  /*</construction>*/
+
+
+
+  /*<property name="capture policy">*/
+  //------------------------------------------------------------------
+
+  /*
+  @Basic(invars = @Expression("capturePolicy != null"))
+  */
+  CapturePolicy getCapturePolicy() {
+    return $capturePolicy;
+  }
+
+  private final CapturePolicy $capturePolicy;
+
+  /*</property>*/
+
+
+
+  /*<property name="value">*/
+  //------------------------------------------------------------------
+
+  /**
+   * A reference to the snapshot that can be handed out: the snapshot itself with {@link CapturePolicy#SHARE},
+   * a {@link org.ppwcode.vernacular.semantics.VII.util.CloneHelpers#safeReference(Object) safe reference}
+   * otherwise.
+   */
+  Object get() {
+    return $capturePolicy == SHARE ? snapshot() : safeReference(snapshot());
+  }
+
+  /**
+   * The snapshot of the value. This may not be handed out.
+   */
+  private Object snapshot() {
+    if ($snapshotTaken) {
+      return $value;
+    }
+    synchronized (this) {
+      if (! $snapshotTaken) {
+        $value = safeReference($value);
+        $snapshotTaken = true;
+      }
+      return $value;
+    }
+  }
+
+  /**
+   * The snapshot, or, as long as {@link #$snapshotTaken} is {@code false}, the original value.
+   */
+  private Object $value;
+
+  private volatile boolean $snapshotTaken;
+
+  /*</property>*/
+
+
+
+  /*<section name="comparison">*/
+  //------------------------------------------------------------------
+
+  /**
+   * Do {@code this} and {@code other} hold equal snapshots? The snapshots are compared directly, and are not
+   * cloned as in {@link #get()}. With {@link CapturePolicy#SNAPSHOT_LAZILY}, this takes the snapshot if that was
+   * not done yet; it is still taken at most once.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_other != null"),
+    post = @Expression("eqn(_other.get(), get())")
+  )
+  */
+  boolean like(final CapturedValue other) {
+    assert other != null;
+    return other == this || eqn(other.snapshot(), snapshot());
+  }
+
+  /**
+   * A hash code that is consistent with {@link #like(CapturedValue)}. As there, the snapshot is not cloned, but it
+   * is taken if that was not done yet, at most once. With {@link CapturePolicy#SHARE}, the result changes when the
+   * shared value is changed.
+   */
+  /*
+  @MethodContract(post = @Expression("Objects.hashCode(get())"))
+  */
+  int likenessHashCode() {
+    return Objects.hashCode(snapshot());
+  }
+
+  /*</section>*/
+
+}
@@ -147,14 +147,7 @@ public final class CompoundPropertyException extends PropertyException implement
       throw new IllegalStateException("can't close twice");
     }
     $closed = true;
-    makeImmutable();
-  }
-
-  private void makeImmutable() {
-    for (Map.Entry<String, Set<PropertyException>> e : $elementExceptionsMap.entrySet()) {
-      e.setValue(Collections.unmodifiableSet(e.getValue()));
-    }
-    $elementExceptionsMap = Collections.unmodifiableMap($elementExceptionsMap);
+    // the views on the element exceptions are read-only; from now on, they also no longer change
   }
 
   private boolean $closed;
@@ -194,44 +187,92 @@ public final class CompoundPropertyException extends PropertyException implement
   )
   */
   public final Map<String, Set<PropertyException>> getElementExceptionsMap() {
-    if ($closed) {
-      return $elementExceptionsMap; // is made unmodifiable by now
-    }
-    else {
-      return deepImmutableElementExceptionsCopy();
+    if ($elementExceptionsMapView == null) {
+      $elementExceptionsMapView = new ElementExceptionsMapView();
     }
+    return $elementExceptionsMapView;
   }
 
-  private Map<String, Set<PropertyException>> deepImmutableElementExceptionsCopy() {
-    Map<String, Set<PropertyException>> result = new HashMap<>($elementExceptionsMap);
+  /**
+   * The result of {@link #getElementExceptionsMap()}: a live, read-only view on the element exceptions. Creating and
+   * reading it does not copy anything. Later additions are visible in the view, as in the views of the sets it
+   * returns as values. As with any other collection view, the compound should not be changed while the view is
+   * iterated over.
+   */
+  private transient Map<String, Set<PropertyException>> $elementExceptionsMapView;
+
+  /**
+   * A deep, unmodifiable copy of {@link #getElementExceptionsMap()}. In contrast to the result of
+   * {@link #getElementExceptionsMap()}, this does not change when element exceptions are added later.
+   */
+  /*
+  @MethodContract(post = @Expression("result.equals(elementExceptionsMap)"))
+  */
+  public final Map<String, Set<PropertyException>> getElementExceptionsMapSnapshot() {
+    if ($size == 0) {
+      return Collections.emptyMap();
+    }
+    Map<String, Set<PropertyException>> result = new HashMap<>();
+    if ($elementExceptionsMap == null) {
+      for (int i = 0; i < $size; i++) {
+        PropertyException pe = $inlineElementExceptions[i];
+        result.computeIfAbsent(pe.getPropertyName(), k -> new HashSet<>()).add(pe);
+      }
+    }
+    else {
+      for (Map.Entry<String, Set<PropertyException>> e : $elementExceptionsMap.entrySet()) {
+        result.put(e.getKey(), new HashSet<>(e.getValue()));
+      }
+    }
     for (Map.Entry<String, Set<PropertyException>> e : result.entrySet()) {
-      Set<PropertyException> pes = e.getValue();
-      e.setValue(immutablePESetCopy(pes));
+      e.setValue(Collections.unmodifiableSet(e.getValue()));
     }
     return Collections.unmodifiableMap(result);
   }
 
-  private Set<PropertyException> immutablePESetCopy(Set<PropertyException> pes) {
-    return pes == null ? null : Collections.unmodifiableSet(new HashSet<>(pes));
-  }
-
+  /**
+   * A live, read-only view on the general element exceptions, or {@code null} if there are none.
+   */
   /*
   @MethodContract(post = @Expression("result.equals(elementExceptions[null])"))
   */
   public Set<PropertyException> getGeneralElementExceptions() {
-    Set<PropertyException> result = $elementExceptionsMap.get(null);
-    return $closed ? result : immutablePESetCopy(result);
+    return getElementExceptionsMap().get(null);
   }
 
+  /**
+   * All element exceptions, as an unmodifiable set. The set is computed once, and reused until another element
+   * exception is added. Once the compound is closed, it no longer changes.
+   */
   /*
   @MethodContract(post = @Expression("union (Set s : elementExceptionsMap.values()"))
   */
   public Set<PropertyException> getElementExceptions() {
-    Set<PropertyException> result = new HashSet<>();
-    $elementExceptionsMap.values().forEach(result::addAll);
+    Set<PropertyException> result = $elementExceptions;
+    if (result == null) {
+      if ($size == 0) {
+        result = Collections.emptySet();
+      }
+      else {
+        Set<PropertyException> union = new HashSet<>();
+        if ($elementExceptionsMap == null) {
+          union.addAll(Arrays.asList($inlineElementExceptions).subList(0, $size));
+        }
+        else {
+          $elementExceptionsMap.values().forEach(union::addAll);
+        }
+        result = Collections.unmodifiableSet(union);
+      }
+      $elementExceptions = result;
+    }
     return result;
   }
 
+  /**
+   * Cache of {@link #getElementExceptions()}. Reset to {@code null} when an element exception is added.
+   */
+  private Set<PropertyException> $elementExceptions;
+
   /**
    * Returns an element exception of this instance. Especially
    * interesting if <code>size == 1</code>, of course.
@@ -244,6 +285,9 @@ public final class CompoundPropertyException extends PropertyException implement
     if (isEmpty()) {
       return null;
     }
+    else if ($elementExceptionsMap == null) {
+      return $inlineElementExceptions[0];
+    }
     else {
       Iterator<Set<PropertyException>> iterator1 = $elementExceptionsMap.values().iterator();
       Set<PropertyException> s = iterator1.next();
@@ -266,11 +310,25 @@ public final class CompoundPropertyException extends PropertyException implement
     if (pe == null) {
       return false;
     }
-    Set<PropertyException> pes = $elementExceptionsMap.get(pe.getPropertyName());
-    if (pes == null) {
+    if ($elementExceptionsMap == null) {
+      for (int i = 0; i < $size; i++) {
+        if ($inlineElementExceptions[i].like(pe)) {
+          return true;
+        }
+      }
       return false;
     }
-    for (PropertyException candidate : pes) {
+    LikenessIndex likenessIndex = likenessIndex();
+    for (PropertyException candidate : likenessIndex.unstable) {
+      if (candidate.like(pe)) {
+        return true;
+      }
+    }
+    List<PropertyException> candidates = likenessIndex.buckets.get(pe.likenessHashCode());
+    if (candidates == null) {
+      return false;
+    }
+    for (PropertyException candidate : candidates) {
       if (candidate.like(pe)) {
         return true;
       }
@@ -278,6 +336,60 @@ public final class CompoundPropertyException extends PropertyException implement
     return false;
   }
 
+  /**
+   * The element exceptions, indexed by {@link PropertyException#likenessHashCode()}, so that {@link #contains}, and
+   * with it {@link #like(ApplicationException)}, does not have to compare with every element exception. The index
+   * is only used once the element exceptions no longer fit inline. It is built when it is needed first, and kept
+   * up to date when element exceptions are added after that.
+   */
+  private LikenessIndex likenessIndex() {
+    assert $elementExceptionsMap != null;
+    LikenessIndex result = $likenessIndex;
+    if (result == null) {
+      result = new LikenessIndex();
+      for (Set<PropertyException> pes : $elementExceptionsMap.values()) {
+        for (PropertyException pe : pes) {
+          result.add(pe);
+        }
+      }
+      $likenessIndex = result;
+    }
+    return result;
+  }
+
+  /**
+   * Element exceptions whose likeness hash code can change after they are added, because they share a captured
+   * value with the caller (see {@link PropertyException#hasStableLikenessHashCode()}), are not put in a bucket,
+   * but kept apart in {@code unstable}, and compared with one by one.
+   */
+  private static final class LikenessIndex {
+
+    final Map<Integer, List<PropertyException>> buckets = new HashMap<>();
+
+    final List<PropertyException> unstable = new ArrayList<>(0);
+
+    void add(final PropertyException pe) {
+      if (pe.hasStableLikenessHashCode()) {
+        buckets.computeIfAbsent(pe.likenessHashCode(), k -> new ArrayList<>(1)).add(pe);
+      }
+      else {
+        unstable.add(pe);
+      }
+    }
+
+  }
+
+  /*
+  @Invars({
+    @Expression("$likenessIndex != null ? $elementExceptionsMap != null"),
+    @Expression("$likenessIndex != null ? for (PropertyException pe : elementExceptions) {" +
+                  "pe.hasStableLikenessHashCode() ? " +
+                    "$likenessIndex.buckets[pe.likenessHashCode()].contains(pe) : " +
+                    "$likenessIndex.unstable.contains(pe)}")
+  })
+  */
+  private transient volatile LikenessIndex $likenessIndex;
+
   /**
    * There are no element exceptions.
    */
@@ -285,7 +397,7 @@ public final class CompoundPropertyException extends PropertyException implement
   @MethodContract(post = @Expression("elementExceptionsMap.empty"))
   */
   public final boolean isEmpty() {
-    return $elementExceptionsMap.isEmpty();
+    return $size == 0;
   }
 
   /**
@@ -297,11 +409,7 @@ public final class CompoundPropertyException extends PropertyException implement
   )
   */
   public int getSize() {
-    int acc = 0;
-    for (Set<PropertyException> s : $elementExceptionsMap.values()) {
-      acc += s.size();
-    }
-    return acc;
+    return $size;
   }
 
   /**
@@ -347,29 +455,252 @@ public final class CompoundPropertyException extends PropertyException implement
     if ((getOriginType() != null) && (getOrigin() == null) && (pExc.getOriginType() != getOriginType())) {
       throw new IllegalArgumentException("only exceptions for origin type " + getOriginType() + " are allowed");
     }
+    if ($elementExceptionsMap == null) {
+      for (int i = 0; i < $size; i++) {
+        if ($inlineElementExceptions[i].equals(pExc)) {
+          return; // set semantics
+        }
+      }
+      if ($size < INLINE_CAPACITY) {
+        if ($inlineElementExceptions.length == 0) {
+          // NO_ELEMENT_EXCEPTIONS, or an empty array after deserialization
+          $inlineElementExceptions = new PropertyException[INLINE_CAPACITY];
+        }
+        $inlineElementExceptions[$size++] = pExc;
+        $elementExceptions = null;
+        return;
+      }
+      growIntoMap();
+    }
     Set<PropertyException> propertySet = $elementExceptionsMap.get(pExc.getPropertyName());
     if (propertySet == null) {
       propertySet = new HashSet<>();
       $elementExceptionsMap.put(pExc.getPropertyName(), propertySet);
     }
-    propertySet.add(pExc);
+    if (propertySet.add(pExc)) {
+      $size++;
+      $elementExceptions = null;
+      LikenessIndex likenessIndex = $likenessIndex;
+      if (likenessIndex != null) {
+        likenessIndex.add(pExc);
+      }
+    }
   }
 
+  private void growIntoMap() {
+    assert $elementExceptionsMap == null;
+    Map<String, Set<PropertyException>> map = new HashMap<>();
+    for (int i = 0; i < $size; i++) {
+      PropertyException pe = $inlineElementExceptions[i];
+      map.computeIfAbsent(pe.getPropertyName(), k -> new HashSet<>()).add(pe);
+    }
+    $elementExceptionsMap = map;
+    $inlineElementExceptions = null;
+  }
+
+  /**
+   * Compounds are created often, and most hold only a few element exceptions, or none at all. Up to
+   * {@code INLINE_CAPACITY} element exceptions are stored in {@link #$inlineElementExceptions}. Only when more are
+   * added, they are moved into {@link #$elementExceptionsMap}.
+   */
+  private static final int INLINE_CAPACITY = 4;
+
+  /**
+   * Shared by all compounds that have no element exceptions yet.
+   */
+  private static final PropertyException[] NO_ELEMENT_EXCEPTIONS = new PropertyException[0];
+
   /*
   @Invars({
-    @Expression("$elementExceptionsMap != null"),
-    @Expression("! $elementExceptionsMap.containsKey(EMPTY)"),
-    @Expression("! $elementExceptionsMap.containsValue(null)"),
-    @Expression("for (Set s : $elementExceptionsMap.values) {! s.isEmpty()}"),
-    @Expression("for (Set s : $elementExceptionsMap.values) {! s.contains(null)}"),
-    @Expression("for (Set s : $elementExceptionsMap.values) {! s instanceof CompoundPropertyException}"),
-    @Expression("for (Map.Entry e : $elementExceptionsMap.entrySet) {for (PropertyException pe : e.value) {pe.propertyName == e.key}}"),
-    @Expression("for (Set e : $elementExceptionsMap.values) {for (PropertyException pe : s) {pe.origin == origin}}"),
-    @Expression("for (Set e : $elementExceptionsMap.values) {for (PropertyException pe : s) {pe.originType == originType}}"),
-    @Expression("propertyName != null ? for (String s) {s != propertyName ? ! $elementExceptionsMap.containsKey(s)}")
+    @Expression("($inlineElementExceptions == null) != ($elementExceptionsMap == null)"),
+    @Expression("$inlineElementExceptions != null ? $size <= $inlineElementExceptions.length"),
+    @Expression("$inlineElementExceptions != null ? $size <= INLINE_CAPACITY"),
+    @Expression("$inlineElementExceptions != null ? " +
+                  "for (int i = 0; i < $size; i++) {$inlineElementExceptions[i] != null}"),
+    @Expression("$inlineElementExceptions != null ? for (int i = 0; i < $size; i++) {" +
+                  "for (int j = i + 1; j < $size; j++) {! $inlineElementExceptions[i].equals($inlineElementExceptions[j])}}")
   })
   */
-  private Map<String, Set<PropertyException>> $elementExceptionsMap = new HashMap<>();
+  private PropertyException[] $inlineElementExceptions = NO_ELEMENT_EXCEPTIONS;
+
+  /**
+   * The total number of element exceptions, stored inline or in the map.
+   */
+  /*
+  @Invars({
+    @Expression("$size >= 0"),
+    @Expression("$elementExceptionsMap != null ? $size == sum(Set s : $elementExceptionsMap.values) {s.size}")
+  })
+  */
+  private int $size;
+
+  /*
+  @Invars({
+    @Expression("$elementExceptionsMap != null ? ! $elementExceptionsMap.containsKey(EMPTY)"),
+    @Expression("$elementExceptionsMap != null ? ! $elementExceptionsMap.containsValue(null)"),
+    @Expression("$elementExceptionsMap != null ? for (Set s : $elementExceptionsMap.values) {! s.isEmpty()}"),
+    @Expression("$elementExceptionsMap != null ? for (Set s : $elementExceptionsMap.values) {! s.contains(null)}"),
+    @Expression("$elementExceptionsMap != null ? for (Set s : $elementExceptionsMap.values) {! s instanceof CompoundPropertyException}"),
+    @Expression("$elementExceptionsMap != null ? for (Map.Entry e : $elementExceptionsMap.entrySet) {for (PropertyException pe : e.value) {pe.propertyName == e.key}}"),
+    @Expression("$elementExceptionsMap != null ? for (Set e : $elementExceptionsMap.values) {for (PropertyException pe : s) {pe.origin == origin}}"),
+    @Expression("$elementExceptionsMap != null ? for (Set e : $elementExceptionsMap.values) {for (PropertyException pe : s) {pe.originType == originType}}"),
+    @Expression("$elementExceptionsMap != null ? propertyName != null ? for (String s) {s != propertyName ? ! $elementExceptionsMap.containsKey(s)}")
+  })
+  */
+  private Map<String, Set<PropertyException>> $elementExceptionsMap;
+
+  /**
+   * Does {@code propertyName} have element exceptions?
+   */
+  private boolean hasElementExceptionsFor(final String propertyName) {
+    if ($elementExceptionsMap != null) {
+      return $elementExceptionsMap.containsKey(propertyName);
+    }
+    for (int i = 0; i < $size; i++) {
+      if (Objects.equals($inlineElementExceptions[i].getPropertyName(), propertyName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The names of the properties that have element exceptions, with {@code null} for general element exceptions.
+   */
+  private Collection<String> propertyNames() {
+    if ($elementExceptionsMap != null) {
+      return $elementExceptionsMap.keySet();
+    }
+    List<String> result = new ArrayList<>(INLINE_CAPACITY);
+    for (int i = 0; i < $size; i++) {
+      String propertyName = $inlineElementExceptions[i].getPropertyName();
+      if (! result.contains(propertyName)) {
+        result.add(propertyName);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Live, read-only view on the element exceptions, by property name.
+   */
+  private final class ElementExceptionsMapView extends AbstractMap<String, Set<PropertyException>> {
+
+    @Override
+    public int size() {
+      return $elementExceptionsMap != null ? $elementExceptionsMap.size() : propertyNames().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return $size == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return (key == null || key instanceof String) && hasElementExceptionsFor((String)key);
+    }
+
+    @Override
+    public Set<PropertyException> get(final Object key) {
+      return containsKey(key) ? new PropertyElementExceptionsView((String)key) : null;
+    }
+
+    @Override
+    public Set<Entry<String, Set<PropertyException>>> entrySet() {
+      return new AbstractSet<Entry<String, Set<PropertyException>>>() {
+
+        @Override
+        public int size() {
+          return ElementExceptionsMapView.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<String, Set<PropertyException>>> iterator() {
+          final Iterator<String> propertyNames = propertyNames().iterator();
+          return new Iterator<Entry<String, Set<PropertyException>>>() {
+
+            @Override
+            public boolean hasNext() {
+              return propertyNames.hasNext();
+            }
+
+            @Override
+            public Entry<String, Set<PropertyException>> next() {
+              String propertyName = propertyNames.next();
+              return new SimpleImmutableEntry<>(propertyName, new PropertyElementExceptionsView(propertyName));
+            }
+
+          };
+        }
+
+      };
+    }
+
+  }
+
+  /**
+   * Live, read-only view on the element exceptions of one property.
+   */
+  private final class PropertyElementExceptionsView extends AbstractSet<PropertyException> {
+
+    PropertyElementExceptionsView(final String propertyName) {
+      $propertyName = propertyName;
+    }
+
+    private final String $propertyName;
+
+    @Override
+    public int size() {
+      if ($elementExceptionsMap != null) {
+        Set<PropertyException> pes = $elementExceptionsMap.get($propertyName);
+        return pes == null ? 0 : pes.size();
+      }
+      int result = 0;
+      for (int i = 0; i < $size; i++) {
+        if (Objects.equals($inlineElementExceptions[i].getPropertyName(), $propertyName)) {
+          result++;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      if (! (o instanceof PropertyException) ||
+          ! Objects.equals(((PropertyException)o).getPropertyName(), $propertyName)) {
+        return false;
+      }
+      if ($elementExceptionsMap != null) {
+        Set<PropertyException> pes = $elementExceptionsMap.get($propertyName);
+        return pes != null && pes.contains(o);
+      }
+      for (int i = 0; i < $size; i++) {
+        if ($inlineElementExceptions[i].equals(o)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Iterator<PropertyException> iterator() {
+      if ($elementExceptionsMap != null) {
+        Set<PropertyException> pes = $elementExceptionsMap.get($propertyName);
+        return pes == null ?
+               Collections.<PropertyException>emptyIterator() :
+               Collections.unmodifiableSet(pes).iterator();
+      }
+      List<PropertyException> result = new ArrayList<>(INLINE_CAPACITY);
+      for (int i = 0; i < $size; i++) {
+        if (Objects.equals($inlineElementExceptions[i].getPropertyName(), $propertyName)) {
+          result.add($inlineElementExceptions[i]);
+        }
+      }
+      return Collections.unmodifiableList(result).iterator();
+    }
+
+  }
 
   /*</property>*/
 
@@ -394,6 +725,14 @@ public final class CompoundPropertyException extends PropertyException implement
     if (getSize() != otherCpe.getSize()) {
       return false;
     }
+    if ($elementExceptionsMap == null) {
+      for (int i = 0; i < $size; i++) {
+        if (! otherCpe.contains($inlineElementExceptions[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
     for (Set<PropertyException> ourPeSet : $elementExceptionsMap.values()) {
       for (PropertyException ourPe : ourPeSet) {
         if (! otherCpe.contains(ourPe)) {
@@ -404,6 +743,16 @@ public final class CompoundPropertyException extends PropertyException implement
     return true;
   }
 
+  /**
+   * The number of element exceptions is part of the likeness hash code of a compound. The element exceptions
+   * themselves are not: {@link #like(ApplicationException)} only requires that each of our element exceptions
+   * is like one of the other compound.
+   */
+  @Override
+  public int likenessHashCode() {
+    return 31 * super.likenessHashCode() + getSize();
+  }
+
   /*</section>*/
 
 
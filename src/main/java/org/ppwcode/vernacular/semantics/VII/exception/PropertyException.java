@@ -18,7 +18,12 @@ package org.ppwcode.vernacular.semantics.VII.exception;
 
 import org.ppwcode.vernacular.exception.IV.ApplicationException;
 import org.ppwcode.vernacular.exception.IV.SemanticException;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
 
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
 import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasProperty;
 
 /**
@@ -32,6 +37,12 @@ import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasPrope
  *   A {@code PropertyException} reports on an issue with <em>one</em> object. If there is a need to communicate
  *   an issue over more than one issue, use a {@link SemanticException}. Specific property exception subtypes will
  *   make these advises binding in most cases.</p>
+ * <p>The constructors that take a property name check, as an assertion, that the origin type has that property.
+ *   Property names that resolve are cached per type, in
+ *   {@link org.ppwcode.vernacular.semantics.VII.util.BeanMetadata}, so that this check is cheap when the same
+ *   exception is thrown repeatedly. Names that do not resolve are not cached: they are a programming error, and
+ *   fail the assertion anyway. Hot code paths can use the constructors that take a {@link PropertyAccessor}
+ *   instead, which need no check at all.</p>
  * <p>Note: Throwables cannot have generic parameters. Otherwise we would have used this instead of
  *  {@link #getOriginType()}.</p>
  *
@@ -121,10 +132,156 @@ public class PropertyException extends SemanticException {
     $propertyName = propertyName;
   }
 
+  /**
+   * <p>For hot code paths that have resolved the property beforehand: the property is known to exist, and its
+   *   name is not validated again.</p>
+   *
+   * @param     property
+   *            The accessor of the property of which the setter has thrown
+   *            this exception because parameter validation failed, resolved
+   *            against the type of {@code origin} or one of its supertypes.
+   * @param     origin
+   *            The bean that has thrown this exception.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_origin != null"),
+      @Expression("_property != null"),
+      @Expression("_property.beanType.isInstance(_origin)"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == _origin"),
+      @Expression("originType == _origin.class"),
+      @Expression("propertyName == _property.propertyName"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
+    }
+  )
+  */
+  public PropertyException(PropertyAccessor property, Object origin, String message, Throwable cause) {
+    super(message, cause);
+    assert origin != null;
+    assert ! (origin instanceof Class);
+    assert preArgumentNotNull(property, "property");
+    assert property.getBeanType().isInstance(origin);
+    assert (message == null) || (!message.equals(""));
+    $origin = origin;
+    $originType = origin.getClass();
+    $propertyName = property.getPropertyName();
+  }
+
+  /**
+   * <p>For hot code paths that have resolved the property beforehand: the property is known to exist, and its
+   *   name is not validated again.</p>
+   *
+   * @param     property
+   *            The accessor of the property of which the setter has thrown
+   *            this exception because parameter validation failed, resolved
+   *            against {@code originType} or one of its supertypes.
+   * @param     originType
+   *            The bean that has thrown this exception.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_originType != null"),
+      @Expression("_property != null"),
+      @Expression("_property.beanType.isAssignableFrom(_originType)"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == null"),
+      @Expression("originType == _originType"),
+      @Expression("propertyName == _property.propertyName"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
+    }
+  )
+  */
+  public PropertyException(PropertyAccessor property, Class<?> originType, String message, Throwable cause) {
+    super(message, cause);
+    assert originType != null;
+    assert preArgumentNotNull(property, "property");
+    assert property.getBeanType().isAssignableFrom(originType);
+    assert (message == null) || (!message.equals(""));
+    $originType = originType;
+    $propertyName = property.getPropertyName();
+  }
+
   /*</construction>*/
 
 
 
+  /*<section name="stack trace">*/
+  //------------------------------------------------------------------
+
+  /**
+   * {@code true} on a thread while it is creating exceptions in {@link #stackless(Supplier)}.
+   * The stack trace is filled in in the constructor of {@link Throwable}, before any field of this
+   * exception is initialized, so this cannot be an instance field.
+   */
+  private static final ThreadLocal<Boolean> STACKLESS = new ThreadLocal<Boolean>() {
+    @Override
+    protected Boolean initialValue() {
+      return Boolean.FALSE;
+    }
+  };
+
+  /**
+   * <p>Create a property exception with {@code constructor}, without filling in its stack trace. Use this
+   *   for exceptions that are collected as data, e.g., in the implementation of
+   *   {@link org.ppwcode.vernacular.semantics.VII.bean.RousseauBean#wildExceptions()}, and that are not
+   *   expected to be thrown: filling in the stack trace is by far the most expensive part of creating an
+   *   exception. The stack trace of the resulting exception is empty.</p>
+   * <pre>
+   *   cpe.addElementException(stackless(() -&gt; new PropertyException(this, "name", "NOT_NULL", null)));
+   * </pre>
+   * <p>This applies to all property exceptions {@code constructor} creates on this thread, including
+   *   the exceptions it creates for nested calls.</p>
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_constructor != null"),
+    post = @Expression("result == _constructor.get() && result.stackTrace.length == 0")
+  )
+  */
+  public static <_T_ extends PropertyException> _T_
+  stackless(final Supplier<_T_> constructor) {
+    assert preArgumentNotNull(constructor, "constructor");
+    Boolean previous = STACKLESS.get();
+    STACKLESS.set(Boolean.TRUE);
+    try {
+      return constructor.get();
+    }
+    finally {
+      STACKLESS.set(previous);
+    }
+  }
+
+  /**
+   * Does not fill in the stack trace if this exception is created in {@link #stackless(Supplier)}.
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return STACKLESS.get() ? this : super.fillInStackTrace();
+  }
+
+  /*</section>*/
+
+
+
   /*<property name="originType">*/
   //------------------------------------------------------------------
 
@@ -203,6 +360,34 @@ public class PropertyException extends SemanticException {
            eqn(((PropertyException)other).getPropertyName(), getPropertyName());
   }
 
+  /**
+   * <p>A hash code that is consistent with {@link #like(ApplicationException)}: exceptions that are alike have the
+   *   same likeness hash code. This makes it possible to index exceptions by likeness, e.g., in a
+   *   {@link CompoundPropertyException}. Subtypes that extend {@link #like(ApplicationException)} can extend this
+   *   method accordingly, to make the hash code more discriminating.</p>
+   * <p>Like {@link #like(ApplicationException)}, the result depends on the identity of the origin and the cause.</p>
+   */
+  /*
+  @MethodContract(post = @Expression("for (PropertyException other) {like(other) ? other.likenessHashCode() == result}"))
+  */
+  public int likenessHashCode() {
+    int result = getClass().hashCode();
+    result = 31 * result + Objects.hashCode(getMessage());
+    result = 31 * result + System.identityHashCode(getOrigin());
+    result = 31 * result + Objects.hashCode(getOriginType());
+    result = 31 * result + Objects.hashCode(getPropertyName());
+    return result;
+  }
+
+  /**
+   * Does {@link #likenessHashCode()} stay the same for the life time of this exception? Only if it does, the
+   * exception can be indexed by its likeness hash code. This is the case for property exceptions, unless they
+   * capture a value they share with the caller.
+   */
+  boolean hasStableLikenessHashCode() {
+    return true;
+  }
+
   /*</section>*/
 
 }
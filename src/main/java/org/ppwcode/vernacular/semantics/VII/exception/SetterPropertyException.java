@@ -18,8 +18,10 @@ package org.ppwcode.vernacular.semantics.VII.exception;
 
 
 import org.ppwcode.vernacular.exception.IV.ApplicationException;
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
 
-import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.safeReference;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.getDefaultCapturePolicy;
 
 
 /**
@@ -85,8 +87,111 @@ public class SetterPropertyException extends ValuePropertyException {
                                  final Object vetoedValue,
                                  final String message,
                                  final Throwable cause) {
-    super(origin, propertyName, message, cause);
-    $vetoedValue = safeReference(vetoedValue);
+    this(origin, propertyName, vetoedValue, getDefaultCapturePolicy(), message, cause);
+  }
+
+  /**
+   * @param     origin
+   *            The bean that has thrown this exception.
+   * @param     propertyName
+   *            The name of the property of which the setter has thrown
+   *            this exception because parameter validation failed.
+   * @param     vetoedValue
+   *            The value that was tried to set on property {@code propertyName},
+   *            which is being vetoed by this exception.
+   * @param     capturePolicy
+   *            How the value of the property and the vetoed value are captured,
+   *            and handed out.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_origin != null"),
+      @Expression("_propertyName != null"),
+      @Expression("hasProperty(_origin.class, _propertyName)"),
+      @Expression("_capturePolicy != null"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == _origin"),
+      @Expression("originType == _origin.class"),
+      @Expression("propertyName == _propertyName"),
+      @Expression("capturePolicy == _capturePolicy"),
+      @Expression("_capturePolicy == SHARE ? propertyValue == _origin[_propertyName] : " +
+                    "propertyValue == safeReference(_origin[_propertyName])"),
+      @Expression("_capturePolicy == SHARE ? vetoedValue == _vetoedValue : vetoedValue == safeReference(_vetoedValue)"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
+    }
+  )
+  */
+  public SetterPropertyException(final Object origin,
+                                 final String propertyName,
+                                 final Object vetoedValue,
+                                 final CapturePolicy capturePolicy,
+                                 final String message,
+                                 final Throwable cause) {
+    super(origin, propertyName, capturePolicy, message, cause);
+    $vetoedValue = CapturedValue.capture(capturePolicy, vetoedValue);
+  }
+
+  /**
+   * <p>For hot code paths that have resolved the property beforehand: the property name is not validated again,
+   *   and the value is read with {@code property} directly.</p>
+   *
+   * @param     property
+   *            The accessor of the property of which the setter has thrown
+   *            this exception because parameter validation failed, resolved
+   *            against the type of {@code origin} or one of its supertypes.
+   * @param     origin
+   *            The bean that has thrown this exception.
+   * @param     vetoedValue
+   *            The value that was tried to set on {@code property},
+   *            which is being vetoed by this exception.
+   * @param     capturePolicy
+   *            How the value of the property and the vetoed value are captured,
+   *            and handed out.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_origin != null"),
+      @Expression("_property != null"),
+      @Expression("_property.beanType.isInstance(_origin)"),
+      @Expression("_capturePolicy != null"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == _origin"),
+      @Expression("originType == _origin.class"),
+      @Expression("propertyName == _property.propertyName"),
+      @Expression("capturePolicy == _capturePolicy"),
+      @Expression("_capturePolicy == SHARE ? propertyValue == _property.read(_origin) : " +
+                    "propertyValue == safeReference(_property.read(_origin))"),
+      @Expression("_capturePolicy == SHARE ? vetoedValue == _vetoedValue : vetoedValue == safeReference(_vetoedValue)"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
+    }
+  )
+  */
+  public SetterPropertyException(final PropertyAccessor property,
+                                 final Object origin,
+                                 final Object vetoedValue,
+                                 final CapturePolicy capturePolicy,
+                                 final String message,
+                                 final Throwable cause) {
+    super(property, origin, capturePolicy, message, cause);
+    $vetoedValue = CapturedValue.capture(capturePolicy, vetoedValue);
   }
 
   /*</construction>*/
@@ -104,10 +209,10 @@ public class SetterPropertyException extends ValuePropertyException {
   @Basic
   */
   public final Object getVetoedValue() {
-    return safeReference($vetoedValue);
+    return $vetoedValue.get();
   }
 
-  private Object $vetoedValue;
+  private final CapturedValue $vetoedValue;
 
   /*</property>*/
 
@@ -130,7 +235,12 @@ public class SetterPropertyException extends ValuePropertyException {
   */
   @Override
   public boolean like(ApplicationException other) {
-    return super.like(other) && eqn(((SetterPropertyException)other).getVetoedValue(), getVetoedValue());
+    return super.like(other) && ((SetterPropertyException)other).$vetoedValue.like($vetoedValue);
+  }
+
+  @Override
+  public int likenessHashCode() {
+    return 31 * super.likenessHashCode() + $vetoedValue.likenessHashCode();
   }
 
   /*</property>*/
@@ -17,12 +17,13 @@ limitations under the License.
 package org.ppwcode.vernacular.semantics.VII.exception;
 
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.ppwcode.vernacular.exception.IV.ApplicationException;
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
 
-import java.lang.reflect.InvocationTargetException;
-
-import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.safeReference;
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.getDefaultCapturePolicy;
 
 
 /**
@@ -37,7 +38,9 @@ import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.safeReferen
  *   as well as simple properties of value types, both of mutable types and immutable types. When the
  *   values are put into the exception and when they are returned out of the exception, we try to clone
  *   them. We expect mutable value types to be cloneable, and immutable value types and reference types
- *   not to be cloneable. This way, the actual value is guarded from change.</p>
+ *   not to be cloneable. This way, the actual value is guarded from change. Cloneable types that are known to
+ *   be {@link org.ppwcode.vernacular.semantics.VII.util.ImmutableTypes immutable} are not cloned. How values
+ *   are captured can be changed with a {@link CapturePolicy}.</p>
  * <p>This kind of exception cannot be thrown in a constructor, since there is no original value then.</p>
  *
  * @author    Jan Dockx
@@ -89,9 +92,53 @@ public class ValuePropertyException extends PropertyException {
   )
   */
   public ValuePropertyException(Object origin, String propertyName, String message, Throwable cause) {
+    this(origin, propertyName, getDefaultCapturePolicy(), message, cause);
+  }
+
+  /**
+   * @param     origin
+   *            The bean that has thrown this exception.
+   * @param     propertyName
+   *            The name of the property of which the setter has thrown
+   *            this exception because parameter validation failed.
+   * @param     capturePolicy
+   *            How the value of the property is captured, and handed out.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_origin != null"),
+      @Expression("_propertyName != null"),
+      @Expression("hasProperty(_origin.class, _propertyName)"),
+      @Expression("_capturePolicy != null"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == _origin"),
+      @Expression("originType == _origin.class"),
+      @Expression("propertyName == _propertyName"),
+      @Expression("capturePolicy == _capturePolicy"),
+      @Expression("_capturePolicy == SHARE ? propertyValue == _origin[_propertyName] : " +
+                    "propertyValue == safeReference(_origin[_propertyName])"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
+    }
+  )
+  */
+  public ValuePropertyException(Object origin,
+                                String propertyName,
+                                CapturePolicy capturePolicy,
+                                String message,
+                                Throwable cause) {
     super(origin, propertyName, message, cause);
     assert propertyName != null;
-    $propertyValue = safePropertyValue(origin, propertyName);
+    assert preArgumentNotNull(capturePolicy, "capturePolicy");
+    $propertyValue = CapturedValue.capture(capturePolicy, propertyValue(origin, propertyName));
   }
 
 
@@ -178,26 +225,124 @@ public class ValuePropertyException extends PropertyException {
 //    assert propertyName != null;
 //  }
 
-  private static Object safePropertyValue(final Object origin, final String propertyName) {
-    try {
-      return safeReference(PropertyUtils.getSimpleProperty(origin, propertyName));
-    }
-    catch (IllegalAccessException exc) {
-      assert false : "IllegalAccessException should not happen: " + exc + " we already tested that the property exists";
-    }
-    catch (InvocationTargetException exc) {
-      assert false : "InvocationTargetException should not happen: " + exc + " we already tested that the property exists";
+  /**
+   * <p>For hot code paths that have resolved the property beforehand: the property name is not validated again,
+   *   and the value is read with {@code property} directly.</p>
+   *
+   * @param     property
+   *            The accessor of the property of which the setter has thrown
+   *            this exception because parameter validation failed, resolved
+   *            against the type of {@code origin} or one of its supertypes.
+   * @param     origin
+   *            The bean that has thrown this exception.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_origin != null"),
+      @Expression("_property != null"),
+      @Expression("_property.beanType.isInstance(_origin)"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == _origin"),
+      @Expression("originType == _origin.class"),
+      @Expression("propertyName == _property.propertyName"),
+      @Expression("capturePolicy == CloneHelpers.defaultCapturePolicy"),
+      @Expression("propertyValue == safeReference(_property.read(_origin))"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
     }
-    catch (NoSuchMethodException exc) {
-      assert false : "NoSuchMethodException should not happen: " + exc + " we already tested that the property exists";
+  )
+  */
+  public ValuePropertyException(PropertyAccessor property, Object origin, String message, Throwable cause) {
+    this(property, origin, getDefaultCapturePolicy(), message, cause);
+  }
+
+  /**
+   * <p>For hot code paths that have resolved the property beforehand: the property name is not validated again,
+   *   and the value is read with {@code property} directly.</p>
+   *
+   * @param     property
+   *            The accessor of the property of which the setter has thrown
+   *            this exception because parameter validation failed, resolved
+   *            against the type of {@code origin} or one of its supertypes.
+   * @param     origin
+   *            The bean that has thrown this exception.
+   * @param     capturePolicy
+   *            How the value of the property is captured, and handed out.
+   * @param     message
+   *            The message that describes the exceptional circumstance.
+   * @param     cause
+   *            The exception that occurred, causing this exception to be
+   *            thrown, if that is the case.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_origin != null"),
+      @Expression("_property != null"),
+      @Expression("_property.beanType.isInstance(_origin)"),
+      @Expression("_capturePolicy != null"),
+      @Expression("_message == null || ! _message.equals(EMPTY)")
+    },
+    post = {
+      @Expression("origin == _origin"),
+      @Expression("originType == _origin.class"),
+      @Expression("propertyName == _property.propertyName"),
+      @Expression("capturePolicy == _capturePolicy"),
+      @Expression("_capturePolicy == SHARE ? propertyValue == _property.read(_origin) : " +
+                    "propertyValue == safeReference(_property.read(_origin))"),
+      @Expression("message == _message == null ? DEFAULT_MESSAGE_KEY : _message"),
+      @Expression("cause == _cause")
     }
-    return null; // make compiler happy
+  )
+  */
+  public ValuePropertyException(PropertyAccessor property,
+                                Object origin,
+                                CapturePolicy capturePolicy,
+                                String message,
+                                Throwable cause) {
+    super(property, origin, message, cause);
+    assert preArgumentNotNull(capturePolicy, "capturePolicy");
+    $propertyValue = CapturedValue.capture(capturePolicy, property.read(origin));
+  }
+
+  /**
+   * The value of property {@code propertyName} of {@code origin}, read with the cached
+   * {@link org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor} of the type of {@code origin}.
+   * We already tested that the property exists.
+   */
+  private static Object propertyValue(final Object origin, final String propertyName) {
+    return beanMetadata(origin.getClass()).propertyAccessor(propertyName).read(origin);
   }
 
   /*</construction>*/
 
 
 
+  /*<property name="capture policy">*/
+  //------------------------------------------------------------------
+
+  /**
+   * How the values in this exception are captured, and handed out.
+   */
+  /*
+  @Basic(invars = @Expression("capturePolicy != null"))
+  */
+  public final CapturePolicy getCapturePolicy() {
+    return $propertyValue.getCapturePolicy();
+  }
+
+  /*</property>*/
+
+
+
   /*<property name="property value">*/
   //------------------------------------------------------------------
 
@@ -209,10 +354,10 @@ public class ValuePropertyException extends PropertyException {
   @Basic(invars = @Expression("origin == null ? propertyValue = null"))
   */
   public final Object getPropertyValue() {
-    return safeReference($propertyValue);
+    return $propertyValue.get();
   }
 
-  private Object $propertyValue;
+  private final CapturedValue $propertyValue;
 
   /*</property>*/
 
@@ -235,7 +380,21 @@ public class ValuePropertyException extends PropertyException {
   )
   */
   public boolean like(ApplicationException other) {
-    return super.like(other) && eqn(((ValuePropertyException)other).getPropertyValue(), getPropertyValue());
+    return super.like(other) && ((ValuePropertyException)other).$propertyValue.like($propertyValue);
+  }
+
+  @Override
+  public int likenessHashCode() {
+    return 31 * super.likenessHashCode() + $propertyValue.likenessHashCode();
+  }
+
+  /**
+   * A value that is captured with {@link CapturePolicy#SHARE} can be changed by the caller after it is captured,
+   * which changes the likeness hash code.
+   */
+  @Override
+  boolean hasStableLikenessHashCode() {
+    return getCapturePolicy() != CapturePolicy.SHARE;
   }
 
   /*</property>*/
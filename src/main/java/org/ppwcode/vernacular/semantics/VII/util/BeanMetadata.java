@@ -0,0 +1,300 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import java.beans.PropertyDescriptor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.PropertyUtils;
+
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
+
+
+/**
+ * <p>The introspection metadata of a bean type, i.e., its {@link PropertyDescriptor PropertyDescriptors},
+ *   indexed by property name. Instances are created once per type, and are retrieved with
+ *   {@link #beanMetadata(Class)}. They are immutable.</p>
+ * <p>The registry is backed by a {@link ClassValue}, which means the metadata is attached to the
+ *   {@link Class} object itself. When the class loader of a type is unloaded, the metadata
+ *   of that type is garbage collected with it.</p>
+ * <p>All property lookups in {@link PropertyHelpers} go through this registry. Next to the descriptors,
+ *   the metadata holds the compiled {@link PropertyAccessor PropertyAccessors} of the properties that
+ *   have been read, and the resolved {@link PropertyPath PropertyPaths} of the nested property names that
+ *   have been used with this type as root. These are created lazily, the first time they are requested.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+/*
+@Invars({
+  @Expression("type != null"),
+  @Expression("for (PropertyDescriptor pd : PropertyUtils.getPropertyDescriptors(type)) {propertyDescriptor(pd.name) == pd}")
+})
+*/
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class BeanMetadata {
+
+  /*<registry>*/
+  //-------------------------------------------------------------------------
+
+  private static final ClassValue<BeanMetadata> BEAN_METADATA = new ClassValue<BeanMetadata>() {
+    @Override
+    protected BeanMetadata computeValue(Class<?> type) {
+      return new BeanMetadata(type);
+    }
+  };
+
+  /**
+   * The metadata of {@code type}. The metadata is computed the first time it is requested for
+   * a given type, and cached from then on.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_type != null"),
+    post = {
+      @Expression("result != null"),
+      @Expression("result.type == _type"),
+      @Expression("beanMetadata(_type) == result")
+    }
+  )
+  */
+  public static BeanMetadata beanMetadata(final Class<?> type) {
+    assert preArgumentNotNull(type, "type");
+    return BEAN_METADATA.get(type);
+  }
+
+  /*</registry>*/
+
+
+
+  /*<construction>*/
+  //-------------------------------------------------------------------------
+
+  private BeanMetadata(final Class<?> type) {
+    $type = type;
+    $propertyDescriptors = PropertyUtils.getPropertyDescriptors(type);
+      // entries in the array are never null
+    Map<String, PropertyDescriptor> propertyDescriptorsByName = new HashMap<>($propertyDescriptors.length * 2);
+    for (PropertyDescriptor propertyDescriptor : $propertyDescriptors) {
+      assert propertyDescriptor != null;
+      propertyDescriptorsByName.put(propertyDescriptor.getName(), propertyDescriptor);
+    }
+    $propertyDescriptorsByName = propertyDescriptorsByName;
+  }
+
+  /*</construction>*/
+
+
+
+  /*<property name="type">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The bean type this is the metadata of.
+   */
+  /*
+  @Basic(invars = @Expression("type != null"))
+  */
+  public Class<?> getType() {
+    return $type;
+  }
+
+  private final Class<?> $type;
+
+  /*</property>*/
+
+
+
+  /*<property name="property descriptors">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The property descriptors of {@link #getType()}. This is a fresh copy of the internal array.
+   */
+  /*
+  @MethodContract(
+    post = {
+      @Expression("result != null"),
+      @Expression("Arrays.equals(result, PropertyUtils.getPropertyDescriptors(type))")
+    }
+  )
+  */
+  public PropertyDescriptor[] getPropertyDescriptors() {
+    return $propertyDescriptors.clone();
+  }
+
+  /**
+   * The number of properties of {@link #getType()}.
+   */
+  /*
+  @MethodContract(post = @Expression("propertyDescriptors.length"))
+  */
+  public int getNumberOfProperties() {
+    return $propertyDescriptors.length;
+  }
+
+  /**
+   * The {@link PropertyDescriptor} of the property with simple name {@code propertyName}
+   * of {@link #getType()}, or {@code null} if there is no such property. This is a single
+   * hash lookup.
+   */
+  /*
+  @MethodContract(
+    post = @Expression("exists (PropertyDescriptor pd : propertyDescriptors) {pd.name == _propertyName} ? " +
+                         "result.name == _propertyName : " +
+                         "result == null")
+  )
+  */
+  public PropertyDescriptor propertyDescriptor(final String propertyName) {
+    return $propertyDescriptorsByName.get(propertyName);
+  }
+
+  /**
+   * Does {@link #getType()} have a property with simple name {@code propertyName}?
+   */
+  /*
+  @MethodContract(post = @Expression("propertyDescriptor(_propertyName) != null"))
+  */
+  public boolean hasSimpleProperty(final String propertyName) {
+    return $propertyDescriptorsByName.containsKey(propertyName);
+  }
+
+  /*
+  @Invars({
+    @Expression("$propertyDescriptors != null"),
+    @Expression("! Arrays.contains($propertyDescriptors, null)")
+  })
+  */
+  private final PropertyDescriptor[] $propertyDescriptors;
+
+  /*
+  @Invars({
+    @Expression("$propertyDescriptorsByName != null"),
+    @Expression("$propertyDescriptorsByName.values == Set($propertyDescriptors)"),
+    @Expression("for (Map.Entry e : $propertyDescriptorsByName.entrySet) {e.key == e.value.name}")
+  })
+  */
+  private final Map<String, PropertyDescriptor> $propertyDescriptorsByName;
+
+  /*</property>*/
+
+
+
+  /*<section name="property accessors">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The compiled {@link PropertyAccessor} for the property with simple name {@code propertyName}
+   * of {@link #getType()}. The accessor is created the first time it is requested, and cached.
+   * If there is no such property, or the property has no read method, this is considered
+   * a programming error.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("hasSimpleProperty(_propertyName)"),
+      @Expression("propertyDescriptor(_propertyName).readMethod != null")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("result.beanType == type"),
+      @Expression("result.propertyDescriptor == propertyDescriptor(_propertyName)"),
+      @Expression("propertyAccessor(_propertyName) == result")
+    }
+  )
+  */
+  public PropertyAccessor propertyAccessor(final String propertyName) {
+    assert preArgumentNotNull(propertyName, "propertyName");
+    PropertyAccessor result = $propertyAccessors.get(propertyName);
+    if (result == null) {
+      PropertyDescriptor pd = propertyDescriptor(propertyName);
+      if (pd == null) {
+        throw new AssertionError("no property descriptor found with name \"" + propertyName + "\" in type " +
+                                 $type.getName());
+      }
+      if (pd.getReadMethod() == null) {
+        throw new AssertionError("No read method for property " + propertyName);
+      }
+      result = new PropertyAccessor($type, pd);
+      PropertyAccessor raced = $propertyAccessors.putIfAbsent(propertyName, result);
+      if (raced != null) {
+        result = raced;
+      }
+    }
+    return result;
+  }
+
+  /*
+  @Invars({
+    @Expression("$propertyAccessors != null"),
+    @Expression("for (Map.Entry e : $propertyAccessors.entrySet) {e.value.propertyDescriptor == propertyDescriptor(e.key)}")
+  })
+  */
+  private final ConcurrentMap<String, PropertyAccessor> $propertyAccessors = new ConcurrentHashMap<>();
+
+  /*</section>*/
+
+
+
+  /*<section name="property paths">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The {@link PropertyPath} of the nested property name {@code propertyName}, resolved against
+   * {@link #getType()}, or {@code null} if {@code propertyName} does not resolve. Resolved paths are cached,
+   * so that each nested property name is parsed and resolved only once. Names that do not resolve are not
+   * cached: they are rare, and would allow the cache to grow without bound.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_propertyName != null"),
+    post = {
+      @Expression("PropertyHelpers.hasProperty(type, _propertyName) ? " +
+                    "result != null && result.rootType == type && result.name == _propertyName : " +
+                    "result == null"),
+      @Expression("result != null ? propertyPath(_propertyName) == result")
+    }
+  )
+  */
+  public PropertyPath propertyPath(final String propertyName) {
+    assert preArgumentNotNull(propertyName, "propertyName");
+    PropertyPath result = $propertyPaths.get(propertyName);
+    if (result == null) {
+      result = PropertyPath.resolve($type, propertyName);
+      if (result != null) {
+        PropertyPath raced = $propertyPaths.putIfAbsent(propertyName, result);
+        if (raced != null) {
+          result = raced;
+        }
+      }
+    }
+    return result;
+  }
+
+  /*
+  @Invars({
+    @Expression("$propertyPaths != null"),
+    @Expression("for (Map.Entry e : $propertyPaths.entrySet) {e.value.rootType == type && e.value.name == e.key}")
+  })
+  */
+  private final ConcurrentMap<String, PropertyPath> $propertyPaths = new ConcurrentHashMap<>();
+
+  /*</section>*/
+
+}
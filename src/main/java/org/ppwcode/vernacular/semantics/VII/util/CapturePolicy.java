@@ -0,0 +1,51 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+
+/**
+ * <p>How a value is captured by an object that keeps it to report on it later, such as a property exception,
+ *   and how it is handed out again.</p>
+ * <p>Values of an {@link ImmutableTypes#isImmutable(Class) immutable type} and values that are not
+ *   {@link Cloneable} are never copied, whatever the policy. The default policy is
+ *   {@link CloneHelpers#getDefaultCapturePolicy()}.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+public enum CapturePolicy {
+
+  /**
+   * The value is cloned with {@link CloneHelpers#safeReference(Object)} when it is captured, and that
+   * snapshot is cloned again each time it is handed out. This is the safest policy.
+   */
+  CLONE,
+
+  /**
+   * The value is kept and handed out as is, without ever making a copy. This is only safe if the value is
+   * not changed after it is captured, e.g., if it is frozen.
+   */
+  SHARE,
+
+  /**
+   * A reference to the value is kept when it is captured, and a snapshot is made with
+   * {@link CloneHelpers#safeReference(Object)} when it is needed for the first time. A clone of that snapshot is
+   * handed out each time. This avoids the clone when the captured value is never used, at the risk of reporting
+   * changes to the value that happen between the capture and the first use.
+   */
+  SNAPSHOT_LAZILY
+
+}
@@ -17,14 +17,9 @@ limitations under the License.
 package org.ppwcode.vernacular.semantics.VII.util;
 
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.pre;
-import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.unexpectedException;
-import static org.ppwcode.vernacular.semantics.VII.util.MethodHelpers.hasPublicMethod;
-import static org.ppwcode.vernacular.semantics.VII.util.MethodHelpers.method;
-import static org.ppwcode.vernacular.semantics.VII.util.MethodHelpers.isPublic;
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneStrategy.cloneStrategy;
 
 
 /**
@@ -45,23 +40,58 @@ public final class CloneHelpers {
     // no instances possible
   }
 
-  private static final String CLONE_SIGNATURE = "clone()";
+  /*<property name="default capture policy">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The {@link CapturePolicy} used by objects that capture values, when no policy is given explicitly.
+   * This is {@link CapturePolicy#CLONE} initially.
+   */
+  /*
+  @Basic(invars = @Expression("defaultCapturePolicy != null"))
+  */
+  public static CapturePolicy getDefaultCapturePolicy() {
+    return $defaultCapturePolicy;
+  }
+
+  /*
+  @MethodContract(
+    pre  = @Expression("_defaultCapturePolicy != null"),
+    post = @Expression("defaultCapturePolicy == _defaultCapturePolicy")
+  )
+  */
+  public static void setDefaultCapturePolicy(CapturePolicy defaultCapturePolicy) {
+    assert preArgumentNotNull(defaultCapturePolicy, "defaultCapturePolicy");
+    $defaultCapturePolicy = defaultCapturePolicy;
+  }
+
+  private static volatile CapturePolicy $defaultCapturePolicy = CapturePolicy.CLONE;
+
+  /*</property>*/
+
+
 
   /**
    * If {@code object} is {@link Cloneable}, return a clone. Otherwise, return {@code object} itself.
    * If {@code object} is {@link Cloneable}, {@code object} must have a public {@code clone()} method.
+   * Instances of {@link ImmutableTypes#isImmutable(Class) immutable types} are never cloned.
+   * How this is done for a given type, is decided only once (see {@link CloneStrategy}).
    */
   /*
   @MethodContract(
     pre  = {
       @Expression("_object != null"),
-      @Expression("_object instanceof Cloneable ? isKloneable(_object.class)")
+      @Expression("_object instanceof Cloneable && ! isImmutable(_object.class) ? isKloneable(_object.class)")
     },
-    post = @Expression("_object instanceof Cloneable ? _object.clone() : _object")
+    post = @Expression("_object instanceof Cloneable && ! isImmutable(_object.class) ? _object.clone() : _object")
   )
   */
   public static <_T_> _T_ safeReference(_T_ object) {
-    return object == null ? null : (object instanceof Cloneable ? klone(object) : object);
+    if (object == null) {
+      return null;
+    }
+    @SuppressWarnings("unchecked") _T_ result = (_T_)cloneStrategy(object.getClass()).safeReference(object);
+    return result;
   }
 
   /**
@@ -73,6 +103,8 @@ public final class CloneHelpers {
    * <p>The method is called {@code klone} with a &quot;k&quot; to avoid naming conflicts in using classes, where
    *   we would want to work with a static import {@code import static org.ppwcode.util.reflect_I.CloneHelpers.clone;}.
    *   This conflicts with the inherited {@link Object#clone()} method.</p>
+   * <p>The {@code clone()} method is looked up only once per type, and called through a
+   *   {@link java.lang.invoke.MethodHandle} (see {@link CloneStrategy}).</p>
    */
   /*
   @MethodContract(
@@ -83,31 +115,13 @@ public final class CloneHelpers {
   )
   */
   public static <_T_> _T_ klone(_T_ kloneable) {
-    //noinspection SimplifiableConditionalExpression
-    pre(kloneable != null ? isKloneable(kloneable.getClass()) : true);
     if (kloneable == null) {
       return null;
     }
-    Method cm = method(kloneable.getClass(), CLONE_SIGNATURE);
-    assert cm != null;
-    assert isPublic(cm);
-    try {
-      Object result = cm.invoke(kloneable);
-        /* IllegalAccessException, IllegalArgumentException, InvocationTargetException,
-         * NullPointerException, ExceptionInInitializerError */
-      @SuppressWarnings("unchecked") _T_ tResult = (_T_)result;
-      return tResult;
-    }
-    catch (final IllegalAccessException exc) {
-      unexpectedException(exc, "we only invoke public methods");
-    }
-    catch (IllegalArgumentException | NullPointerException exc) {
-      unexpectedException(exc);
-    }
-    catch (InvocationTargetException | ExceptionInInitializerError exc) {
-      unexpectedException(exc, "invoked clone, which cannot throw exceptions");
-    }
-    return null; // keep compiler happy
+    CloneStrategy strategy = cloneStrategy(kloneable.getClass());
+    pre(strategy.isKloneable());
+    @SuppressWarnings("unchecked") _T_ result = (_T_)strategy.klone(kloneable);
+    return result;
   }
 
   /*
@@ -116,7 +130,7 @@ public final class CloneHelpers {
   )
   */
   public static boolean isKloneable(Class<?> type) {
-    return Cloneable.class.isAssignableFrom(type) && hasPublicMethod(type, CLONE_SIGNATURE);
+    return cloneStrategy(type).isKloneable();
   }
 
 }
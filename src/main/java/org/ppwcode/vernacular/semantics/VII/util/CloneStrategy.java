@@ -0,0 +1,284 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.unexpectedException;
+import static org.ppwcode.vernacular.semantics.VII.util.MethodHelpers.hasPublicMethod;
+import static org.ppwcode.vernacular.semantics.VII.util.MethodHelpers.isPublic;
+import static org.ppwcode.vernacular.semantics.VII.util.MethodHelpers.method;
+
+
+/**
+ * <p>How {@link CloneHelpers} makes a safe reference to, or a clone of, instances of a given type. The strategy
+ *   of a type is decided once, with {@link #cloneStrategy(Class)}, and is then reused for all instances of that
+ *   type, without any further reflection:</p>
+ * <ul>
+ *   <li>instances of types that are not {@link Cloneable} are referenced as is ({@link #IDENTITY});</li>
+ *   <li>instances of {@link Cloneable} types without a public {@code clone()} method cannot be cloned
+ *     ({@link #NOT_KLONEABLE});</li>
+ *   <li>for other types, {@code clone()} is called through a {@link MethodHandle}, that is created once.</li>
+ * </ul>
+ * <p>Instances of {@link ImmutableTypes#isImmutable(Class) immutable types} are not cloned for a safe reference,
+ *   but they can still be cloned explicitly if the type is kloneable.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+abstract class CloneStrategy {
+
+  /*<section name="registry">*/
+  //-------------------------------------------------------------------------
+
+  private static final MethodSignature CLONE_SIGNATURE = MethodSignature.of("clone()");
+
+  private static final MethodType CLONE_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final ClassValue<CloneStrategy> CLONE_STRATEGIES = new ClassValue<CloneStrategy>() {
+    @Override
+    protected CloneStrategy computeValue(Class<?> type) {
+      CloneStrategy cloning = cloningStrategy(type);
+      return cloning != IDENTITY && ImmutableTypes.isImmutable(type) ? new Shared(cloning) : cloning;
+    }
+
+    private CloneStrategy cloningStrategy(Class<?> type) {
+      if (! Cloneable.class.isAssignableFrom(type)) {
+        return IDENTITY;
+      }
+      if (! hasPublicMethod(type, CLONE_SIGNATURE)) {
+        return NOT_KLONEABLE;
+      }
+      Method cm = method(type, CLONE_SIGNATURE);
+      assert cm != null;
+      assert isPublic(cm);
+      try {
+        return new HandleClone(MethodHandles.publicLookup().unreflect(cm).asType(CLONE_TYPE));
+      }
+      catch (IllegalAccessException iaExc) {
+        // a public clone() in a type that is not accessible itself; fall back to reflection
+        return new ReflectiveClone(cm);
+      }
+    }
+  };
+
+  /**
+   * The strategy for instances of {@code type}. This is decided the first time it is requested for a
+   * given type, and cached from then on.
+   */
+  static CloneStrategy cloneStrategy(Class<?> type) {
+    assert type != null;
+    return CLONE_STRATEGIES.get(type);
+  }
+
+  /**
+   * Forget the strategy for {@code type}, so that it is decided again the next time it is requested.
+   * This is needed when {@code type} is {@link ImmutableTypes#register(Class) registered as immutable}.
+   */
+  static void forget(Class<?> type) {
+    assert type != null;
+    CLONE_STRATEGIES.remove(type);
+  }
+
+  /*</section>*/
+
+
+
+  /*<section name="strategy">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * Can instances of the type be cloned with {@link #klone(Object)}?
+   */
+  abstract boolean isKloneable();
+
+  /**
+   * A clone of {@code kloneable}, if the type is {@link #isKloneable() kloneable}. Otherwise, this is
+   * considered a programming error.
+   */
+  abstract Object klone(Object kloneable);
+
+  /**
+   * A reference to {@code object} that can be kept safely: {@code object} itself, or a clone. Instances of
+   * {@link Cloneable} types that are not {@link #isKloneable() kloneable} are a programming error.
+   */
+  abstract Object safeReference(Object object);
+
+  /*</section>*/
+
+
+
+  /*<section name="strategies">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * For types that are not {@link Cloneable}.
+   */
+  static final CloneStrategy IDENTITY = new CloneStrategy() {
+
+    @Override
+    boolean isKloneable() {
+      return false;
+    }
+
+    @Override
+    Object klone(Object kloneable) {
+      throw new AssertionError(kloneable.getClass().getName() + " is not Cloneable");
+    }
+
+    @Override
+    Object safeReference(Object object) {
+      return object;
+    }
+
+  };
+
+  /**
+   * For {@link Cloneable} types that do not have a public {@code clone()} method.
+   */
+  static final CloneStrategy NOT_KLONEABLE = new CloneStrategy() {
+
+    @Override
+    boolean isKloneable() {
+      return false;
+    }
+
+    @Override
+    Object klone(Object kloneable) {
+      throw new AssertionError(kloneable.getClass().getName() + " has no public clone() method");
+    }
+
+    @Override
+    Object safeReference(Object object) {
+      return klone(object);
+    }
+
+  };
+
+  /**
+   * Calls {@code clone()} through a {@link MethodHandle} of type {@code (Object)Object}.
+   */
+  private static final class HandleClone extends CloneStrategy {
+
+    HandleClone(MethodHandle clone) {
+      $clone = clone;
+    }
+
+    private final MethodHandle $clone;
+
+    @Override
+    boolean isKloneable() {
+      return true;
+    }
+
+    @Override
+    Object klone(Object kloneable) {
+      try {
+        return (Object)$clone.invokeExact(kloneable);
+      }
+      catch (Throwable exc) {
+        unexpectedException(exc, "invoked clone, which cannot throw exceptions");
+      }
+      return null; // keep compiler happy
+    }
+
+    @Override
+    Object safeReference(Object object) {
+      return klone(object);
+    }
+
+  }
+
+  /**
+   * Calls {@code clone()} with {@link Method#invoke(Object, Object...)}, for the rare case where the public
+   * {@code clone()} method cannot be accessed with a {@link MethodHandle}.
+   */
+  private static final class ReflectiveClone extends CloneStrategy {
+
+    ReflectiveClone(Method clone) {
+      $clone = clone;
+    }
+
+    private final Method $clone;
+
+    @Override
+    boolean isKloneable() {
+      return true;
+    }
+
+    @Override
+    Object klone(Object kloneable) {
+      try {
+        return $clone.invoke(kloneable);
+          /* IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+           * NullPointerException, ExceptionInInitializerError */
+      }
+      catch (final IllegalAccessException exc) {
+        unexpectedException(exc, "we only invoke public methods");
+      }
+      catch (IllegalArgumentException | NullPointerException exc) {
+        unexpectedException(exc);
+      }
+      catch (InvocationTargetException | ExceptionInInitializerError exc) {
+        unexpectedException(exc, "invoked clone, which cannot throw exceptions");
+      }
+      return null; // keep compiler happy
+    }
+
+    @Override
+    Object safeReference(Object object) {
+      return klone(object);
+    }
+
+  }
+
+  /**
+   * For {@link ImmutableTypes#isImmutable(Class) immutable} {@link Cloneable} types: a safe reference is the
+   * object itself, but cloning is delegated to the strategy the type would have had if it were not immutable.
+   */
+  private static final class Shared extends CloneStrategy {
+
+    Shared(CloneStrategy cloning) {
+      $cloning = cloning;
+    }
+
+    private final CloneStrategy $cloning;
+
+    @Override
+    boolean isKloneable() {
+      return $cloning.isKloneable();
+    }
+
+    @Override
+    Object klone(Object kloneable) {
+      return $cloning.klone(kloneable);
+    }
+
+    @Override
+    Object safeReference(Object object) {
+      return object;
+    }
+
+  }
+
+  /*</section>*/
+
+}
@@ -19,6 +19,9 @@ package org.ppwcode.vernacular.semantics.VII.util;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.*;
 
@@ -38,10 +41,77 @@ public final class ConstantHelpers {
     // NOP
   }
 
+  /**
+   * A constant of a type: the public static final field, and its value, once it is read.
+   */
+  private static final class Constant {
+
+    Constant(Field field) {
+      $field = field;
+    }
+
+    private final Field $field;
+
+    /**
+     * {@code null} means the value is not read yet, or is {@code null}. A {@code null} value is read again
+     * every time: during the initialization of the declaring type, constants that are not yet initialized
+     * read as {@code null}, and that should not stick.
+     */
+    private volatile Object $value;
+
+    Object value() {
+      Object result = $value;
+      if (result == null) {
+        try {
+          result = $field.get(null); // IllegalAccessException, IllegalArgumentException,
+                                     // NullPointerException; cannot happen
+                                     // ExceptionInInitializerError
+          $value = result;
+        }
+        catch (NullPointerException | IllegalAccessException | IllegalArgumentException | ExceptionInInitializerError exc) {
+          unexpectedException(exc);
+        }
+      }
+      return result;
+    }
+
+  }
+
+  /**
+   * Per type, its constants by name. A name maps to the field {@link Class#getField(String)} returns, if
+   * that is a constant. The table is built once per type; the values are read when they are first requested.
+   */
+  private static final ClassValue<Map<String, Constant>> CONSTANTS = new ClassValue<Map<String, Constant>>() {
+    @Override
+    protected Map<String, Constant> computeValue(Class<?> type) {
+      Map<String, Constant> result = new LinkedHashMap<>();
+      try {
+        for (Field f : type.getFields()) { // public fields, also inherited ones, also hidden ones
+          if (! result.containsKey(f.getName())) {
+            Field field = type.getField(f.getName()); // the field the name resolves to, if hidden
+            int fMods = field.getModifiers();
+            if (Modifier.isFinal(fMods) && Modifier.isStatic(fMods)) {
+              result.put(field.getName(), new Constant(field));
+            }
+          }
+        }
+      }
+      catch (NoSuchFieldException exc) {
+        unexpectedException(exc, "the name comes from type.getFields()");
+      }
+      catch (SecurityException exc) {
+        unexpectedException(exc);
+      }
+      return Collections.unmodifiableMap(result);
+    }
+  };
+
   /**
    * Returns the value of the constant (public final static) {@code constantName} in class {@code type}.
    * If that constant doesn't exist, or something else goes wrong, this is considered a programming error.
    * We can work only with public class variables, and we look for these in type {@code type} and super types.
+   * The constants of {@code type} are found in a table that is built once, and that keeps the values once
+   * they are read.
    *
    * @param     type
    *            The type to look in for the constant.
@@ -61,20 +131,10 @@ public final class ConstantHelpers {
   */
   public static <_ConstantValue_> _ConstantValue_ constant(final Class<?> type, final String constantName) {
     preArgumentNotNull(type);
-    pre(isConstant(type, constantName));
-    try {
-      Field field = type.getField(constantName); // NoSuchFieldException, NullPointerException, SecurityException
-      @SuppressWarnings("unchecked") _ConstantValue_ result =
-          (_ConstantValue_)field.get(null); // IllegalAccessException, IllegalArgumentException,
-                                            // NullPointerException; cannot happen
-                                            // ExceptionInInitializerError
-      return result;
-      // not checking for static; why should we?
-    }
-    catch (NullPointerException | NoSuchFieldException | IllegalAccessException | IllegalArgumentException | SecurityException | ExceptionInInitializerError npExc) {
-      unexpectedException(npExc);
-    }
-    return null; // make compiler happy
+    Constant constant = constantName == null ? null : CONSTANTS.get(type).get(constantName);
+    pre(constant != null);
+    @SuppressWarnings("unchecked") _ConstantValue_ result = (_ConstantValue_)constant.value();
+    return result;
   }
 
   /**
@@ -98,22 +158,32 @@ public final class ConstantHelpers {
   public static boolean isConstant(Class<?> type, String constantName) {
     preArgumentNotNull(type);
     preArgumentNotEmpty(constantName);
-    boolean result = false;
-    try {
-      Field field = type.getField(constantName); // result is public for sure
-      int fMods = field.getModifiers();
-      result = Modifier.isFinal(fMods) && Modifier.isStatic(fMods);
-    }
-    catch (NullPointerException npExc) {
-      unexpectedException(npExc, "constantName nor type or null here");
-    }
-    catch (SecurityException exc) {
-      unexpectedException(exc);
+    return CONSTANTS.get(type).containsKey(constantName);
+  }
+
+  /**
+   * The values of all the constants of {@code type}, by name. These are the constants
+   * {@link #isConstant(Class, String)} reports, with the values {@link #constant(Class, String)} returns.
+   * The result is a new, unmodifiable map.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_type != null"),
+    post = {
+      @Expression("result != null"),
+      @Expression("for (Field f : type.fields) {isConstant(_type, f.name) == result.containsKey(f.name)}"),
+      @Expression("for (String name : result.keySet()) {result.get(name) == constant(_type, name)}")
     }
-    catch (NoSuchFieldException exc) {
-      result = false;
+  )
+  */
+  public static Map<String, Object> constants(Class<?> type) {
+    preArgumentNotNull(type);
+    Map<String, Constant> constants = CONSTANTS.get(type);
+    Map<String, Object> result = new LinkedHashMap<>(constants.size() * 2);
+    for (Map.Entry<String, Constant> e : constants.entrySet()) {
+      result.put(e.getKey(), e.getValue().value());
     }
-    return result;
+    return Collections.unmodifiableMap(result);
   }
 
 }
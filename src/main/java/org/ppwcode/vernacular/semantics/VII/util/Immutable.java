@@ -0,0 +1,41 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * <p>Declares that instances of the annotated type are immutable, or at least never mutated once they are
+ *   handed out. {@link CloneHelpers#safeReference(Object)} does not clone instances of such types, even when
+ *   they are {@link Cloneable}.</p>
+ * <p>The annotation is not inherited: a subtype of an immutable type can be mutable. Types that cannot be
+ *   annotated, can be registered with {@link ImmutableTypes#register(Class)}.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Immutable {
+  // NOP
+}
@@ -0,0 +1,85 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
+
+
+/**
+ * <p>Registry of the types of which instances are known to be immutable, or at least never mutated once they
+ *   are handed out. {@link CloneHelpers#safeReference(Object)} shares instances of these types, instead of
+ *   cloning them. This matters for {@link Cloneable} types, e.g., collections that are frozen after they are
+ *   built: they can be captured in a property exception without making a copy.</p>
+ * <p>A type is immutable if it is annotated with {@link Immutable}, or if it is registered with
+ *   {@link #register(Class)}. Types that are not {@link Cloneable}, such as {@link String} and the boxed primitive
+ *   types, are never cloned anyway, and need not be registered. Registration applies to the given type only,
+ *   and not to its subtypes, since a subtype of an immutable type can be mutable. Registration cannot be
+ *   undone.</p>
+ * <p>The registration is kept in a {@link ClassValue}, attached to the {@link Class} object itself, so that
+ *   registering a type does not keep its class loader from being unloaded.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ImmutableTypes {
+
+  private ImmutableTypes() {
+    // no instances possible
+  }
+
+  private static final ClassValue<AtomicBoolean> REGISTERED = new ClassValue<AtomicBoolean>() {
+    @Override
+    protected AtomicBoolean computeValue(Class<?> type) {
+      return new AtomicBoolean();
+    }
+  };
+
+  /**
+   * Are instances of {@code type} known to be immutable?
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_type != null"),
+    post = @Expression("_type.isAnnotationPresent(Immutable.class) || {registered types}.contains(_type)")
+  )
+  */
+  public static boolean isImmutable(Class<?> type) {
+    assert preArgumentNotNull(type, "type");
+    return REGISTERED.get(type).get() || type.isAnnotationPresent(Immutable.class);
+  }
+
+  /**
+   * Register {@code type} as immutable. From now on, {@link CloneHelpers#safeReference(Object)} shares
+   * instances of {@code type}, instead of cloning them.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_type != null"),
+    post = @Expression("isImmutable(_type)")
+  )
+  */
+  public static void register(Class<?> type) {
+    assert preArgumentNotNull(type, "type");
+    if (REGISTERED.get(type).compareAndSet(false, true)) {
+      CloneStrategy.forget(type);
+    }
+  }
+
+}
@@ -21,9 +21,15 @@ import org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static java.lang.reflect.Modifier.isAbstract;
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.*;
@@ -40,6 +46,15 @@ import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.*
  *   considered a programming error (e.g., typo in the signature). If you want to find out
  *   what the accessibility of a given method is, you can use the boolean inspectors provided
  *   here.</p>
+ * <p>The resolution of inherited methods is cached per type, keyed by the parsed {@link MethodSignature}.
+ *   Signature Strings are parsed with {@link MethodSignature#of(String)}, which interns them.
+ *   Signatures that do not resolve are cached too. Repeated {@link #method(Class, String)} and
+ *   {@link #hasPublicMethod(Class, String)} lookups thus cost a single hash lookup after the first time.
+ *   The cache is attached to the {@link Class} objects with a {@link ClassValue}, so that it is garbage
+ *   collected with the type.</p>
+ * <p>Lookups do not use {@link NoSuchMethodException} for control flow. The declared methods of each type
+ *   are indexed by name once, and a miss at any level of the hierarchy is reported with {@code null}.
+ *   Only the package accessible helpers, which are part of the tested contract, still throw.</p>
  *
  * @author Jan Dockx
  * @author PeopleWare n.v.
@@ -185,22 +200,114 @@ public final class MethodHelpers {
   static Method methodHelper(Class<?> type, String signature) throws NoSuchMethodException {
     assert preArgumentNotNull(type, "type");
     assert preArgumentNotEmpty(signature, "signature");
-    Method result = null;
-    try {
-      MethodSignature sig = new MethodSignature(signature);
-      //noinspection ConfusingArgumentToVarargsMethod
-      result = type.getDeclaredMethod(sig.getMethodName(), sig.getParameterTypes());
+    Method result = declaredMethod(type, MethodSignature.of(signature));
+    if (result == null) {
+      throw new NoSuchMethodException("method with signature " + signature + " does not exist in " + type.getName());
     }
-    catch (NullPointerException npExc) {
-      unexpectedException(npExc);
+    return result;
+  }
+
+  /**
+   * Per type, the methods declared in that type ({@link Class#getDeclaredMethods()}), grouped by name.
+   */
+  private static final ClassValue<Map<String, Method[]>> DECLARED_METHODS =
+    new ClassValue<Map<String, Method[]>>() {
+      @Override
+      protected Map<String, Method[]> computeValue(Class<?> type) {
+        Method[] declaredMethods = null;
+        try {
+          declaredMethods = type.getDeclaredMethods();
+        }
+        catch (SecurityException sExc) {
+          unexpectedException(sExc, "not allowed to access the methods of " + type.getName());
+        }
+        assert declaredMethods != null;
+        Map<String, List<Method>> methodsByName = new HashMap<>(declaredMethods.length * 2);
+        for (Method m : declaredMethods) {
+          List<Method> overloads = methodsByName.get(m.getName());
+          if (overloads == null) {
+            overloads = new ArrayList<>(1);
+            methodsByName.put(m.getName(), overloads);
+          }
+          overloads.add(m);
+        }
+        Map<String, Method[]> result = new HashMap<>(methodsByName.size() * 2);
+        for (Map.Entry<String, List<Method>> e : methodsByName.entrySet()) {
+          result.put(e.getKey(), e.getValue().toArray(new Method[e.getValue().size()]));
+        }
+        return result;
+      }
+    };
+
+  /**
+   * The method declared exactly in {@code type} with {@code signature}, or {@code null} if there is no such
+   * method. This is {@link Class#getDeclaredMethod(String, Class[])}, but without an exception for a miss:
+   * the methods of {@code type} are indexed by name once, and the overloads are filtered on arity and
+   * parameter types. As in {@link Class#getDeclaredMethod(String, Class[])}, if more than one method matches
+   * (bridge methods for covariant return types), the one with the most specific return type is returned.
+   */
+  private static Method declaredMethod(Class<?> type, MethodSignature signature) {
+    assert preArgumentNotNull(type, "type");
+    assert preArgumentNotNull(signature, "signature");
+    Method[] overloads = DECLARED_METHODS.get(type).get(signature.getMethodName());
+    if (overloads == null) {
+      return null;
     }
-    catch (SecurityException sExc) {
-      unexpectedException(sExc, "not allowed to access " + signature);
+    Method result = null;
+    for (Method candidate : overloads) {
+      if (signature.hasParameterTypesOf(candidate) &&
+          (result == null || result.getReturnType().isAssignableFrom(candidate.getReturnType()))) {
+        result = candidate;
+      }
     }
-    // NoSuchMethodException falls through
     return result;
   }
 
+  /**
+   * Marker for a signature that does not resolve in a given type, in {@link #RESOLVED_METHODS}.
+   */
+  private static final Object NO_SUCH_METHOD = new Object();
+
+  /**
+   * Per type, the result of {@link #inheritedMethodHelper(Class, String)} for the signatures that have
+   * been looked up, or {@link #NO_SUCH_METHOD} if the signature does not resolve.
+   */
+  private static final ClassValue<ConcurrentMap<MethodSignature, Object>> RESOLVED_METHODS =
+    new ClassValue<ConcurrentMap<MethodSignature, Object>>() {
+      @Override
+      protected ConcurrentMap<MethodSignature, Object> computeValue(Class<?> type) {
+        return new ConcurrentHashMap<>();
+      }
+    };
+
+  /**
+   * The result of {@link #inheritedMethodHelper(Class, String)}, or {@code null} if the method is not found.
+   * The result is looked up in, or added to, the cache of resolved methods of {@code type}.
+   */
+  private static Method resolvedMethod(Class<?> type, String signature) {
+    assert preArgumentNotNull(type, "type");
+    assert preArgumentNotEmpty(signature, "signature");
+    return resolvedMethod(type, MethodSignature.of(signature));
+  }
+
+  private static Method resolvedMethod(Class<?> type, MethodSignature signature) {
+    assert preArgumentNotNull(type, "type");
+    assert preArgumentNotNull(signature, "signature");
+    ConcurrentMap<MethodSignature, Object> resolvedMethods = RESOLVED_METHODS.get(type);
+    Object result = resolvedMethods.get(signature);
+    if (result == null) {
+      result = resolveInheritedMethod(type, signature);
+      if (result == null) {
+        result = NO_SUCH_METHOD;
+      }
+      Object raced = resolvedMethods.putIfAbsent(signature, result);
+      if (raced != null) {
+        result = raced;
+      }
+    }
+    return result == NO_SUCH_METHOD ? null : (Method)result;
+  }
+
   /**
    * Package accessible for testing.
    * Look for the method with {@code signature} in {@code type}. If not found, repeat recursively in the superclasses,
@@ -208,55 +315,51 @@ public final class MethodHelpers {
    * recursively, to find the method.
    */
   static Method inheritedMethodHelper(Class<?> type, String signature) throws NoSuchMethodException {
+    Method result = resolvedMethod(type, signature);
+    if (result == null) {
+      throw new NoSuchMethodException("method with signature " + signature + " does not exist in type hierarchy");
+    }
+    return result;
+  }
+
+  /**
+   * The uncached resolution behind {@link #inheritedMethodHelper(Class, String)}. Returns {@code null}
+   * if the method is not found.
+   */
+  private static Method resolveInheritedMethod(Class<?> type, MethodSignature signature) {
     assert preArgumentNotNull(type, "type");
-    assert preArgumentNotEmpty(signature, "signature");
-    Method result;
+    assert preArgumentNotNull(signature, "signature");
     if (! type.isInterface()) {
-      try {
-        result = inheritedMethodClassHierarchyHelper(type, signature, true);
-      }
-      catch (NoSuchMethodException exc) {
-        /* could not find method in class hierarchy; so at least, type is an abstract class or an interface, and
-         * the method is abstract, if it exists at all; lets search, breath first in the interfaces hierarchy
-         */
-        if (! isAbstract(type.getModifiers())) {
-          throw new NoSuchMethodException("method with signature " + signature + " does not exist in type hierarchy");
-        }
-        result = inheritedMethodInterfaceHierarchyHelper(type, signature);
+      Method result = inheritedMethodClassHierarchyHelper(type, signature);
+      if (result != null || ! isAbstract(type.getModifiers())) {
+        return result;
       }
+      /* could not find method in class hierarchy; so type is an abstract class, and the method is abstract,
+       * if it exists at all; lets search, breath first in the interfaces hierarchy
+       */
     }
-    else {
-      // it's an interface, go immediately to Start. You will not receive EUR8000.
-      result = inheritedMethodInterfaceHierarchyHelper(type, signature);
-    }
-    return result;
+    // it's an interface, or an abstract class: go to the interfaces. You will not receive EUR8000.
+    return inheritedMethodInterfaceHierarchyHelper(type, signature);
   }
 
-  private static Method inheritedMethodInterfaceHierarchyHelper(Class<?> type, String signature) throws NoSuchMethodException {
+  private static Method inheritedMethodInterfaceHierarchyHelper(Class<?> type, MethodSignature signature) {
     assert preArgumentNotNull(type, "type");
-    assert preArgumentNotEmpty(signature, "signature");
-    Method result;
+    assert preArgumentNotNull(signature, "signature");
     Queue<Class<?>> interfaceStack = new LinkedList<>();
     interfaceStack.add(type);
     while (! interfaceStack.isEmpty()) {
       Class<?> superInterface = interfaceStack.poll();
       if (superInterface.isInterface()) {
-        try {
-          result = methodHelper(superInterface, signature);
+        Method result = declaredMethod(superInterface, signature);
+        if (result != null) {
           // found one; in interfaces, this is surely public; this is it
           return result;
         }
-        catch (NoSuchMethodException exc) {
-          // try next interface, but first add super interfaces of super interface to the stack
-          pushSuperTypes(superInterface, interfaceStack);
-        }
-      }
-      else {
-        // it's a class; don't look for the method here, but include its super types
-        pushSuperTypes(superInterface, interfaceStack);
       }
+      // try next interface, but first add the super types of this type to the stack
+      pushSuperTypes(superInterface, interfaceStack);
     }
-    throw new NoSuchMethodException("method with signature " + signature + " does not exist in type hierarchy");
+    return null;
   }
 
   private static void pushSuperTypes(Class<?> type, Queue<Class<?>> interfaceStack) {
@@ -268,29 +371,22 @@ public final class MethodHelpers {
     Collections.addAll(interfaceStack, superInterfaces);
   }
 
-  private static Method inheritedMethodClassHierarchyHelper(Class<?> type, String signature, boolean allowPrivate) throws NoSuchMethodException {
+  /**
+   * Look for the method in {@code type} and its superclasses, towards {@link Object}. Private methods are only
+   * accepted in {@code type} itself. Returns {@code null} if the method is not found.
+   */
+  private static Method inheritedMethodClassHierarchyHelper(Class<?> type, MethodSignature signature) {
     assert preArgumentNotNull(type, "type");
-    assert preArgumentNotEmpty(signature, "signature");
+    assert preArgumentNotNull(signature, "signature");
     assert pre(! type.isInterface());
-    Method result;
-    try {
-      result = methodHelper(type, signature);
-      if ((! allowPrivate) && isPrivate(result)) {
-        // it makes no sense to seek higher in the hierarchy, since methods cannot be made more strict in subtypes
-        throw new NoSuchMethodException("method with signature " + signature + " is private in " + type);
-      }
-    }
-    catch (NoSuchMethodException nsmExc) {
-      if (type == Object.class) {
-        // we cannot go higher, try in interfaces
-        throw new NoSuchMethodException("no method with signature " + signature + " found in class hierarchy");
-      }
-      else {
-        result = inheritedMethodClassHierarchyHelper(type.getSuperclass(), signature, false);
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      Method result = declaredMethod(current, signature);
+      if (result != null && (current == type || ! isPrivate(result))) {
         // only allow private in first class of hierarchy
+        return result;
       }
     }
-    return result;
+    return null;
   }
 
   /**
@@ -332,12 +428,37 @@ public final class MethodHelpers {
   )
   */
   public static Method method(Class<?> type, String signature) {
-    Method result = null;
-    try {
-      result = inheritedMethodHelper(type, signature);
-    }
-    catch (NoSuchMethodException exc) {
-      unexpectedException(exc, "method " + signature + " not found in " + type.getName());
+    return foundMethod(resolvedMethod(type, signature), type, signature);
+  }
+
+  /**
+   * {@link #method(Class, String)}, for a signature that is already parsed. Use this with a signature
+   * obtained from {@link MethodSignature#of(String)} in a constant, to avoid even the lookup of the
+   * interned signature.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_type != null"),
+      @Expression("_signature != null"),
+      @Expression(value = "true", description = "_signature is the signature of an existing method of _type")
+    },
+    post = @Expression("method(_type, _signature.toString())")
+  )
+  */
+  public static Method method(Class<?> type, MethodSignature signature) {
+    return foundMethod(resolvedMethod(type, signature), type, signature);
+  }
+
+  /**
+   * {@code result}, the method with {@code signature} that is resolved in {@code type}. If it is {@code null},
+   * the method does not exist, which is considered a programming error.
+   */
+  private static Method foundMethod(Method result, Class<?> type, Object signature) {
+    if (result == null) {
+      unexpectedException(new NoSuchMethodException("method with signature " + signature +
+                                                    " does not exist in type hierarchy"),
+                          "method " + signature + " not found in " + type.getName());
     }
     return result;
   }
@@ -423,12 +544,25 @@ public final class MethodHelpers {
   )
 */
   public static boolean hasPublicMethod(Class<?> type, String signature) {
-    try {
-      return isPublic(inheritedMethodHelper(type, signature));
-    }
-    catch (NoSuchMethodException exc) {
-      return false;
-    }
+    Method result = resolvedMethod(type, signature);
+    return result != null && isPublic(result);
+  }
+
+  /**
+   * {@link #hasPublicMethod(Class, String)}, for a signature that is already parsed.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_type != null"),
+      @Expression("_signature != null")
+    },
+    post = @Expression("hasPublicMethod(_type, _signature.toString())")
+  )
+  */
+  public static boolean hasPublicMethod(Class<?> type, MethodSignature signature) {
+    Method result = resolvedMethod(type, signature);
+    return result != null && isPublic(result);
   }
 
 //  /**
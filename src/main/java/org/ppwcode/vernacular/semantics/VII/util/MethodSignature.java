@@ -19,7 +19,13 @@ package org.ppwcode.vernacular.semantics.VII.util;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.pre;
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotEmpty;
@@ -28,6 +34,8 @@ import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.p
  * Structured parse of a signature String, containing the {@link #getMethodName() method name},
  * the {@link #getParameterTypeNames() canonical name of the parameter types} and the
  * {@link #getParameterTypes() parameter types}.
+ * <p>Instances are immutable. Signatures that are used often, should be obtained with {@link #of(String)},
+ *   which parses a given signature String only once, and returns the same instance for it from then on.</p>
  *
  * @author    Jan Dockx
  * @author    PeopleWare n.v.
@@ -46,6 +54,121 @@ public final class MethodSignature {
   /*<construction>*/
   //-------------------------------------------------------------------------
 
+  /**
+   * The maximum number of signature Strings {@link #of(String)} interns. Programs use a limited number of
+   * literal signatures. The bound protects against signatures that are generated dynamically: when it is
+   * reached, signatures that were not used recently are evicted to make room for new ones.
+   */
+  static final int MAX_INTERNED = 1024;
+
+  private static final InternTable INTERNED = new InternTable(MAX_INTERNED);
+
+  /**
+   * The parsed {@code signature}. The first time a given signature String is used, it is parsed with
+   * {@link #MethodSignature(String)}, and the result is interned. After that, the interned instance is
+   * returned, without parsing again, as long as it is not evicted (see {@link #MAX_INTERNED}).
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_signature != null"),
+      @Expression("_signature != EMPTY"),
+      @Expression(value = "true", description = "_signature is a well-formed method signature")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("result.equals(new MethodSignature(_signature))")
+    }
+  )
+  */
+  public static MethodSignature of(String signature) {
+    return INTERNED.of(signature);
+  }
+
+  /**
+   * <p>A bounded table of interned signatures. When it is full, an entry is evicted with the clock algorithm:
+   *   a hand cycles over the entries, and evicts the first entry that was not used since the hand passed it
+   *   the last time. Signatures that are used often thus stay interned.</p>
+   * <p>{@link #of(String)} uses one shared table. Other instances are only created for testing.</p>
+   */
+  static final class InternTable {
+
+    InternTable(int capacity) {
+      assert capacity > 0;
+      $capacity = capacity;
+    }
+
+    private final int $capacity;
+
+    private final ConcurrentMap<String, Entry> $entries = new ConcurrentHashMap<>();
+
+    /**
+     * The hand of the clock. Iterators of a {@link ConcurrentHashMap} never fail on concurrent modification,
+     * so the hand can be kept between evictions. Guarded by {@code this}.
+     */
+    private Iterator<Map.Entry<String, Entry>> $hand;
+
+    private static final class Entry {
+
+      Entry(MethodSignature signature) {
+        this.signature = signature;
+      }
+
+      final MethodSignature signature;
+
+      volatile boolean referenced;
+
+    }
+
+    /**
+     * The number of interned signatures. This is at most the capacity, apart from races.
+     */
+    int size() {
+      return $entries.size();
+    }
+
+    /**
+     * See {@link MethodSignature#of(String)}.
+     */
+    MethodSignature of(String signature) {
+      preArgumentNotEmpty(signature, "signature");
+      Entry entry = $entries.get(signature);
+      if (entry != null) {
+        if (! entry.referenced) {
+          entry.referenced = true;
+        }
+        return entry.signature;
+      }
+      Entry created = new Entry(new MethodSignature(signature));
+      if ($entries.size() >= $capacity) {
+        evict();
+      }
+      entry = $entries.putIfAbsent(signature, created);
+      return entry == null ? created.signature : entry.signature;
+    }
+
+    private synchronized void evict() {
+      // at most 2 rounds: the first round can clear all referenced flags
+      for (int visited = 0; visited <= 2 * $capacity; visited++) {
+        if ($hand == null || ! $hand.hasNext()) {
+          $hand = $entries.entrySet().iterator();
+          if (! $hand.hasNext()) {
+            return;
+          }
+        }
+        Map.Entry<String, Entry> candidate = $hand.next();
+        if (candidate.getValue().referenced) {
+          candidate.getValue().referenced = false;
+        }
+        else {
+          $entries.remove(candidate.getKey(), candidate.getValue());
+          return;
+        }
+      }
+    }
+
+  }
+
   /*
   @MethodContract(
     pre  = {
@@ -65,26 +188,42 @@ public final class MethodSignature {
     $methodName = signature.substring(0, openingParenthesis).trim();
     String parameters = signature.substring(openingParenthesis + 1, closingParenthesis);
     parameters = parameters.trim();
-    if (parameters.length() == 0) {
-      /* Contract of String.split(): If the expression does not match any part
-       * of the input then the resulting array has just one element, namely
-       * this string. Split works for >= 1 parameters, but not for 0 arguments. */
-      $parameterTypeNames = new String[0];
-    }
-    else { // > 0 parameters
-      $parameterTypeNames = parameters.split(",");
-      for (int i = 0; i < $parameterTypeNames.length; i++) {
-        assert $parameterTypeNames[i] != null;
-        $parameterTypeNames[i] = $parameterTypeNames[i].trim();
-      }
-    }
+    $parameterTypeNames = parameterTypeNames(parameters);
     $parameterTypes = new Class<?>[$parameterTypeNames.length];
     for (int i = 0; i < $parameterTypeNames.length; i++) {
-      String parameterTypeName = $parameterTypeNames[i];
-// MUDO deal with [] array types
-      $parameterTypes[i] = TypeHelpers.type(parameterTypeName);
+      // TypeHelpers.type deals with array types, varargs and type arguments
+      $parameterTypes[i] = TypeHelpers.type($parameterTypeNames[i]);
       $parameterTypeNames[i] = $parameterTypes[i].getCanonicalName();
     }
+    $hashCode = hashCode($methodName, $parameterTypes);
+  }
+
+  /**
+   * The trimmed, comma separated parameter type names in {@code parameters}. Commas inside type arguments
+   * ({@code Map<String, Integer>}) do not separate parameters.
+   */
+  private static String[] parameterTypeNames(String parameters) {
+    if (parameters.isEmpty()) {
+      return new String[0];
+    }
+    List<String> result = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < parameters.length(); i++) {
+      char c = parameters.charAt(i);
+      if (c == '<') {
+        depth++;
+      }
+      else if (c == '>') {
+        depth--;
+      }
+      else if (c == ',' && depth == 0) {
+        result.add(parameters.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    result.add(parameters.substring(start).trim());
+    return result.toArray(new String[result.size()]);
   }
 
   /*
@@ -104,6 +243,7 @@ public final class MethodSignature {
     for (int i = 0; i < $parameterTypes.length; i++) {
       $parameterTypeNames[i] = $parameterTypes[i].getCanonicalName();
     }
+    $hashCode = hashCode($methodName, $parameterTypes);
   }
 
   /*
@@ -123,6 +263,7 @@ public final class MethodSignature {
     for (int i = 0; i < $parameterTypes.length; i++) {
       $parameterTypeNames[i] = $parameterTypes[i].getCanonicalName();
     }
+    $hashCode = hashCode($methodName, $parameterTypes);
   }
 
   /*/<construction>*/
@@ -169,7 +310,7 @@ public final class MethodSignature {
   )
   */
   public final String[] getParameterTypeNames() {
-    return $parameterTypeNames;
+    return $parameterTypeNames.clone();
   }
 
   /**
@@ -197,7 +338,7 @@ public final class MethodSignature {
   @Basic
   */
   public Class<?>[] getParameterTypes() {
-    return $parameterTypes;
+    return $parameterTypes.clone();
   }
 
   /**
@@ -215,6 +356,26 @@ public final class MethodSignature {
 
 
 
+  /**
+   * Does {@code method} have exactly the {@link #getParameterTypes() parameter types} of this signature?
+   * The name of {@code method} is not considered. This does not copy {@link #getParameterTypes()}. The number of
+   * parameters is compared first, so that the parameter types of {@code method} are only copied, by
+   * {@link Method#getParameterTypes()}, for a method with the same, non-zero, number of parameters.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("_method != null"),
+    post = @Expression("Arrays.equals(_method.parameterTypes, parameterTypes)")
+  )
+  */
+  boolean hasParameterTypesOf(Method method) {
+    assert method != null;
+    if (method.getParameterCount() != $parameterTypes.length) {
+      return false;
+    }
+    return $parameterTypes.length == 0 || Arrays.equals(method.getParameterTypes(), $parameterTypes);
+  }
+
   /*<property name="number of parameters">*/
   //-------------------------------------------------------------------------
 
@@ -267,18 +428,28 @@ public final class MethodSignature {
     }
     else {
       MethodSignature other = (MethodSignature)obj;
-      return getMethodName().equals(other.getMethodName()) &&
-             Arrays.equals(getParameterTypes(), other.getParameterTypes());
+      return ($hashCode == other.$hashCode) &&
+             $methodName.equals(other.$methodName) &&
+             Arrays.equals($parameterTypes, other.$parameterTypes);
     }
   }
 
+  /**
+   * Computed once, at construction.
+   */
   @Override
   public final int hashCode() {
-    int result = getMethodName() == null ? 0 : getMethodName().hashCode();
-    for (Class<?> c : getParameterTypes()) {
+    return $hashCode;
+  }
+
+  private static int hashCode(String methodName, Class<?>[] parameterTypes) {
+    int result = methodName == null ? 0 : methodName.hashCode();
+    for (Class<?> c : parameterTypes) {
       result += c.hashCode();
     }
     return result;
   }
 
+  private final int $hashCode;
+
 }
@@ -0,0 +1,444 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.unexpectedException;
+
+
+/**
+ * <p>A compiled reader for a simple property of a bean type. The read method of the property is
+ *   turned into a {@link MethodHandle} once, when the accessor is created, instead of being resolved
+ *   and invoked reflectively with {@link Method#invoke(Object, Object...)} on every read. The handle
+ *   is adapted to the erased type {@code (Object)Object}, so that it can be called with
+ *   {@link MethodHandle#invokeExact(Object...) invokeExact}, and the JIT can inline hot property
+ *   reads.</p>
+ * <p>For properties of a primitive type, the accessor also offers exactly typed readers
+ *   ({@link #readInt(Object)}, {@link #readLong(Object)}, {@link #readDouble(Object)} and
+ *   {@link #readBoolean(Object)}), that return the primitive value without boxing it. These readers
+ *   accept the properties whose type can be converted to the requested type with a widening
+ *   primitive conversion, e.g., {@link #readLong(Object)} can be used for an {@code int} property.</p>
+ * <p>Instances are obtained with {@link BeanMetadata#propertyAccessor(String)}, and are cached
+ *   there. They are immutable and thread safe.</p>
+ * <p>Any exception that is thrown while reading is considered a programming error, as in
+ *   {@link PropertyHelpers#propertyValue(Object, String)}. {@link Error Errors} are not wrapped.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+/*
+@Invars({
+  @Expression("beanType != null"),
+  @Expression("propertyDescriptor != null"),
+  @Expression("propertyDescriptor.readMethod != null"),
+  @Expression("BeanMetadata.beanMetadata(beanType).propertyDescriptor(propertyName) == propertyDescriptor")
+})
+*/
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PropertyAccessor {
+
+  private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType INT_READER_TYPE = MethodType.methodType(Integer.TYPE, Object.class);
+
+  private static final MethodType LONG_READER_TYPE = MethodType.methodType(Long.TYPE, Object.class);
+
+  private static final MethodType DOUBLE_READER_TYPE = MethodType.methodType(Double.TYPE, Object.class);
+
+  private static final MethodType BOOLEAN_READER_TYPE = MethodType.methodType(Boolean.TYPE, Object.class);
+
+  /*<construction>*/
+  //-------------------------------------------------------------------------
+
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_beanType != null"),
+      @Expression("_propertyDescriptor != null"),
+      @Expression("_propertyDescriptor.readMethod != null")
+    },
+    post = {
+      @Expression("beanType == _beanType"),
+      @Expression("propertyDescriptor == _propertyDescriptor")
+    }
+  )
+  */
+  PropertyAccessor(final Class<?> beanType, final PropertyDescriptor propertyDescriptor) {
+    assert preArgumentNotNull(beanType, "beanType");
+    assert preArgumentNotNull(propertyDescriptor, "propertyDescriptor");
+    $beanType = beanType;
+    $propertyDescriptor = propertyDescriptor;
+    Method inspector = propertyDescriptor.getReadMethod();
+    assert inspector != null;
+    MethodHandle inspectorHandle = unreflect(inspector);
+    $reader = inspectorHandle.asType(READER_TYPE);
+    Class<?> propertyType = propertyDescriptor.getPropertyType();
+    $intReader = widens(propertyType, Integer.TYPE) ? inspectorHandle.asType(INT_READER_TYPE) : null;
+    $longReader = widens(propertyType, Long.TYPE) ? inspectorHandle.asType(LONG_READER_TYPE) : null;
+    $doubleReader = widens(propertyType, Double.TYPE) ? inspectorHandle.asType(DOUBLE_READER_TYPE) : null;
+    $booleanReader = propertyType == Boolean.TYPE ? inspectorHandle.asType(BOOLEAN_READER_TYPE) : null;
+  }
+
+  /**
+   * Can a value of primitive type {@code from} be converted to primitive type {@code to} by identity or
+   * a widening primitive conversion (JLS 5.1.2)? {@code boolean} converts to no other type.
+   */
+  private static boolean widens(final Class<?> from, final Class<?> to) {
+    if (from == to) {
+      return from.isPrimitive();
+    }
+    else if (from == Byte.TYPE) {
+      return to == Short.TYPE || to == Integer.TYPE || to == Long.TYPE || to == Float.TYPE || to == Double.TYPE;
+    }
+    else if (from == Short.TYPE || from == Character.TYPE) {
+      return to == Integer.TYPE || to == Long.TYPE || to == Float.TYPE || to == Double.TYPE;
+    }
+    else if (from == Integer.TYPE) {
+      return to == Long.TYPE || to == Float.TYPE || to == Double.TYPE;
+    }
+    else if (from == Long.TYPE) {
+      return to == Float.TYPE || to == Double.TYPE;
+    }
+    else if (from == Float.TYPE) {
+      return to == Double.TYPE;
+    }
+    else {
+      return false;
+    }
+  }
+
+  /**
+   * A handle for {@code inspector}. If the read method is public, but the type that declares it is not, no handle
+   * can be made for it directly. The handle is then made for an accessible copy of the read method. If that is not
+   * allowed either, the handle calls {@link Method#invoke(Object, Object...)}, as
+   * {@link PropertyHelpers#propertyValue(Object, String)} used to do. Any access problem then occurs when the
+   * property is read, and not when the accessor is created.
+   */
+  private static MethodHandle unreflect(final Method inspector) {
+    try {
+      return MethodHandles.lookup().unreflect(inspector);
+    }
+    catch (IllegalAccessException iaExc) {
+      // a public read method in a type that is not accessible itself
+      try {
+        // a copy, so that the accessibility of the shared Method of the descriptor does not change
+        Method accessibleInspector = inspector.getDeclaringClass().getMethod(inspector.getName());
+        accessibleInspector.setAccessible(true);
+        return MethodHandles.lookup().unreflect(accessibleInspector);
+      }
+      catch (NoSuchMethodException | IllegalAccessException | RuntimeException exc) {
+        // e.g., in a module that is not open; a problem occurs when the property is read, as with Method.invoke
+        return REFLECTIVE_READ.bindTo(inspector);
+      }
+    }
+  }
+
+  /**
+   * {@link #reflectiveRead(Method, Object)}, as a handle of type {@code (Method, Object)Object}.
+   */
+  private static final MethodHandle REFLECTIVE_READ;
+
+  static {
+    try {
+      REFLECTIVE_READ = MethodHandles.lookup().findStatic(
+        PropertyAccessor.class, "reflectiveRead", MethodType.methodType(Object.class, Method.class, Object.class));
+    }
+    catch (NoSuchMethodException | IllegalAccessException exc) {
+      throw new ExceptionInInitializerError(exc);
+    }
+  }
+
+  private static Object reflectiveRead(final Method inspector, final Object bean)
+      throws IllegalAccessException, InvocationTargetException {
+    return inspector.invoke(bean);
+  }
+
+  /*</construction>*/
+
+
+
+  /*<property name="bean type">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The bean type this accessor reads a property of.
+   */
+  /*
+  @Basic(invars = @Expression("beanType != null"))
+  */
+  public Class<?> getBeanType() {
+    return $beanType;
+  }
+
+  private final Class<?> $beanType;
+
+  /*</property>*/
+
+
+
+  /*<property name="property descriptor">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The descriptor of the property this accessor reads.
+   */
+  /*
+  @Basic(invars = @Expression("propertyDescriptor != null"))
+  */
+  public PropertyDescriptor getPropertyDescriptor() {
+    return $propertyDescriptor;
+  }
+
+  /*
+  @MethodContract(post = @Expression("propertyDescriptor.name"))
+  */
+  public String getPropertyName() {
+    return $propertyDescriptor.getName();
+  }
+
+  /*
+  @MethodContract(post = @Expression("propertyDescriptor.propertyType"))
+  */
+  public Class<?> getPropertyType() {
+    return $propertyDescriptor.getPropertyType();
+  }
+
+  private final PropertyDescriptor $propertyDescriptor;
+
+  /*</property>*/
+
+
+
+  /*<section name="reading">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The value of the property of {@code bean}. Values of a primitive type are boxed.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("beanType.isInstance(_bean)")
+    },
+    post = @Expression("propertyDescriptor.readMethod.invoke(_bean)")
+  )
+  */
+  public Object read(final Object bean) {
+    assert preArgumentNotNull(bean, "bean");
+    try {
+      return (Object)$reader.invokeExact(bean);
+    }
+    catch (Error err) {
+      throw err;
+    }
+    catch (Throwable exc) {
+      unexpectedException(exc, "reading property " + getPropertyName() + " of " + bean);
+    }
+    return null; // keep compiler happy
+  }
+
+  /**
+   * {@link #read(Object)}, erased to the type {@code (Object)Object}.
+   */
+  private final MethodHandle $reader;
+
+  /**
+   * Can the property be read with {@link #readInt(Object)}?
+   */
+  /*
+  @MethodContract(post = @Expression("propertyType is int, short, char or byte"))
+  */
+  public boolean isIntReadable() {
+    return $intReader != null;
+  }
+
+  /**
+   * The value of the {@code int} property of {@code bean}, without boxing. Properties of type
+   * {@code short}, {@code char} or {@code byte} are widened.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("beanType.isInstance(_bean)"),
+      @Expression("intReadable")
+    },
+    post = @Expression("propertyDescriptor.readMethod.invoke(_bean)")
+  )
+  */
+  public int readInt(final Object bean) {
+    assert preArgumentNotNull(bean, "bean");
+    if ($intReader == null) {
+      throw notReadableAs(Integer.TYPE);
+    }
+    try {
+      return (int)$intReader.invokeExact(bean);
+    }
+    catch (Error err) {
+      throw err;
+    }
+    catch (Throwable exc) {
+      unexpectedException(exc, "reading property " + getPropertyName() + " of " + bean);
+    }
+    return 0; // keep compiler happy
+  }
+
+  private final MethodHandle $intReader;
+
+  /**
+   * Can the property be read with {@link #readLong(Object)}?
+   */
+  /*
+  @MethodContract(post = @Expression("propertyType is long, int, short, char or byte"))
+  */
+  public boolean isLongReadable() {
+    return $longReader != null;
+  }
+
+  /**
+   * The value of the {@code long} property of {@code bean}, without boxing. Properties of type
+   * {@code int}, {@code short}, {@code char} or {@code byte} are widened.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("beanType.isInstance(_bean)"),
+      @Expression("longReadable")
+    },
+    post = @Expression("propertyDescriptor.readMethod.invoke(_bean)")
+  )
+  */
+  public long readLong(final Object bean) {
+    assert preArgumentNotNull(bean, "bean");
+    if ($longReader == null) {
+      throw notReadableAs(Long.TYPE);
+    }
+    try {
+      return (long)$longReader.invokeExact(bean);
+    }
+    catch (Error err) {
+      throw err;
+    }
+    catch (Throwable exc) {
+      unexpectedException(exc, "reading property " + getPropertyName() + " of " + bean);
+    }
+    return 0L; // keep compiler happy
+  }
+
+  private final MethodHandle $longReader;
+
+  /**
+   * Can the property be read with {@link #readDouble(Object)}?
+   */
+  /*
+  @MethodContract(post = @Expression("propertyType is a primitive type, but not boolean"))
+  */
+  public boolean isDoubleReadable() {
+    return $doubleReader != null;
+  }
+
+  /**
+   * The value of the {@code double} property of {@code bean}, without boxing. Properties of any other
+   * numeric primitive type, or of type {@code char}, are widened.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("beanType.isInstance(_bean)"),
+      @Expression("doubleReadable")
+    },
+    post = @Expression("propertyDescriptor.readMethod.invoke(_bean)")
+  )
+  */
+  public double readDouble(final Object bean) {
+    assert preArgumentNotNull(bean, "bean");
+    if ($doubleReader == null) {
+      throw notReadableAs(Double.TYPE);
+    }
+    try {
+      return (double)$doubleReader.invokeExact(bean);
+    }
+    catch (Error err) {
+      throw err;
+    }
+    catch (Throwable exc) {
+      unexpectedException(exc, "reading property " + getPropertyName() + " of " + bean);
+    }
+    return 0.0d; // keep compiler happy
+  }
+
+  private final MethodHandle $doubleReader;
+
+  /**
+   * Can the property be read with {@link #readBoolean(Object)}?
+   */
+  /*
+  @MethodContract(post = @Expression("propertyType == boolean"))
+  */
+  public boolean isBooleanReadable() {
+    return $booleanReader != null;
+  }
+
+  /**
+   * The value of the {@code boolean} property of {@code bean}, without boxing.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("beanType.isInstance(_bean)"),
+      @Expression("booleanReadable")
+    },
+    post = @Expression("propertyDescriptor.readMethod.invoke(_bean)")
+  )
+  */
+  public boolean readBoolean(final Object bean) {
+    assert preArgumentNotNull(bean, "bean");
+    if ($booleanReader == null) {
+      throw notReadableAs(Boolean.TYPE);
+    }
+    try {
+      return (boolean)$booleanReader.invokeExact(bean);
+    }
+    catch (Error err) {
+      throw err;
+    }
+    catch (Throwable exc) {
+      unexpectedException(exc, "reading property " + getPropertyName() + " of " + bean);
+    }
+    return false; // keep compiler happy
+  }
+
+  private final MethodHandle $booleanReader;
+
+  private AssertionError notReadableAs(final Class<?> primitiveType) {
+    return new AssertionError("property " + getPropertyName() + " of type " + getPropertyType().getName() +
+                              " in " + $beanType.getName() + " cannot be read as " + primitiveType.getName());
+  }
+
+  /*</section>*/
+
+}
@@ -17,13 +17,13 @@ limitations under the License.
 package org.ppwcode.vernacular.semantics.VII.util;
 
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.apache.commons.beanutils.PropertyUtils;
 
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.unexpectedException;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
 
 
 /**
@@ -93,7 +93,7 @@ public final class PropertyHelpers {
   /**
    * Returns the {@link PropertyDescriptor} of the property with simple name <code>propertyName</code> of
    * <code>type</code>. If no property descriptor is found, {@code null} is returned. Other problems are
-   * considered a programming error.
+   * considered a programming error. The lookup is done in the cached {@link BeanMetadata} of {@code type}.
    * This method is kept private not to confuse users. It is introduced to tackle the big overlap in code between
    * several methods.
    *
@@ -116,16 +116,7 @@ public final class PropertyHelpers {
   */
   private static PropertyDescriptor simplePropertyDescriptorHelper(final Class<?> type, final String propertyName) {
     assert preArgumentNotNull(type, "clazz");
-    PropertyDescriptor[] propertyDescriptors = PropertyUtils.getPropertyDescriptors(type);
-      // entries in the array are never null
-    for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-      assert propertyDescriptor != null;
-      if (propertyDescriptor.getName().equals(propertyName)) {
-        return propertyDescriptor;
-      }
-    }
-    // not found
-    return null;
+    return beanMetadata(type).propertyDescriptor(propertyName);
   }
 
   /**
@@ -268,7 +259,9 @@ public final class PropertyHelpers {
    *   {@code propertyName} can have a nested property name syntax
    *   (&quot;{@code propertyName1.propertyName2.propertyName3...}&quot;).
    *   In navigating the nested properties, the static type of each consecutive property is used
-   *   to look for the next property.</p>
+   *   to look for the next property. The nested name is resolved once into a {@link PropertyPath}, which is
+   *   cached in the {@link BeanMetadata} of {@code type}. A name with an empty segment, including a trailing
+   *   dot (&quot;{@code propertyName1.}&quot;), is not a property name.</p>
    *
    * @param     type
    *            The starting bean type to get the property descriptor of
@@ -287,20 +280,7 @@ public final class PropertyHelpers {
   */
   public static boolean hasProperty(final Class<?> type, final String propertyName) {
     assert preArgumentNotNull(type, "type");
-    String[] propertyNames = propertyName.split(DOT_PATTERN);
-    Class<?> currentType = type;
-    PropertyDescriptor pd;
-    for (String pn : propertyNames) {
-      pd = simplePropertyDescriptorHelper(currentType, pn);
-      if (pd == null) {
-        return false;
-      }
-      else {
-        currentType = pd.getPropertyType();
-      }
-    }
-    // if we get here, the last pd was not null either
-    return true;
+    return beanMetadata(type).propertyPath(propertyName) != null;
   }
 //
 //  /**
@@ -454,49 +434,23 @@ public final class PropertyHelpers {
 //  }
 
   /**
-   * The value of property {@code propertyName} of {@code bean}.
+   * The value of property {@code propertyName} of {@code bean}. The value is read with the compiled
+   * {@link PropertyAccessor} of the property, which is cached in the {@link BeanMetadata} of the
+   * dynamic type of {@code bean}.
    */
   public static <_Value_> _Value_ propertyValue(final Object bean, final String propertyName) {
-    Method inspector;
-    inspector = propertyReadMethod(bean.getClass(), propertyName); // MUDO should use dynamic method; use method from PropertyUtils?
-    assert inspector != null;
-    try {
-      @SuppressWarnings("unchecked") _Value_ result = (_Value_)inspector.invoke(bean);
-      return result;
-    }
-    catch (IllegalArgumentException iaExc) {
-      unexpectedException(iaExc, "there are no arguments, and the implicit argument is not null and of the correct type");
-    }
-    catch (NullPointerException npExc) {
-      unexpectedException(npExc, "implicit argument is not null");
-    }
-    catch (IllegalAccessException | InvocationTargetException | ExceptionInInitializerError iaExc) {
-      unexpectedException(iaExc);
-    }
-    catch (ClassCastException ccExc) {
-      unexpectedException(ccExc, "retrieve value not of expected type");
-    }
-    return null;
+    @SuppressWarnings("unchecked") _Value_ result = (_Value_)propertyAccessor(bean, propertyName).read(bean);
+    return result;
   }
 
   /**
-   * The value of property {@code propertyName} of {@code bean}.
+   * The value of property {@code propertyName} of {@code bean}, cast to {@code valueType}.
+   * The value is read with the compiled {@link PropertyAccessor} of the property.
    */
   public static <_Value_> _Value_ propertyValue(final Object bean, final String propertyName, Class<_Value_> valueType) {
-    Method inspector;
-    inspector = propertyReadMethod(bean.getClass(), propertyName); // MUDO should use dynamic method; use method from PropertyUtils?
-    assert inspector != null;
+    Object value = propertyAccessor(bean, propertyName).read(bean);
     try {
-      return valueType.cast(inspector.invoke(bean));
-    }
-    catch (IllegalArgumentException iaExc) {
-      unexpectedException(iaExc, "there are no arguments, and the implicit argument is not null and of the correct type");
-    }
-    catch (NullPointerException npExc) {
-      unexpectedException(npExc, "implicit argument is not null");
-    }
-    catch (IllegalAccessException | InvocationTargetException | ExceptionInInitializerError iaExc) {
-      unexpectedException(iaExc);
+      return valueType.cast(value);
     }
     catch (ClassCastException ccExc) {
       unexpectedException(ccExc, "retrieve value not of expected type");
@@ -504,6 +458,90 @@ public final class PropertyHelpers {
     return null;
   }
 
+  /**
+   * The value of the {@code int} property {@code propertyName} of {@code bean}, read without boxing.
+   * Properties of type {@code short}, {@code char} and {@code byte} are widened. If the property has another
+   * type, this is considered a programming error.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("hasProperty(_bean.class, _propertyName)"),
+      @Expression("propertyReadMethod(_bean.class, _propertyName).returnType in {int, short, char, byte}")
+    },
+    post = @Expression("propertyValue(_bean, _propertyName)")
+  )
+  */
+  public static int intPropertyValue(final Object bean, final String propertyName) {
+    return propertyAccessor(bean, propertyName).readInt(bean);
+  }
+
+  /**
+   * The value of the {@code long} property {@code propertyName} of {@code bean}, read without boxing.
+   * Properties of type {@code int}, {@code short}, {@code char} and {@code byte} are widened. If the property
+   * has another type, this is considered a programming error.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("hasProperty(_bean.class, _propertyName)"),
+      @Expression("propertyReadMethod(_bean.class, _propertyName).returnType in {long, int, short, char, byte}")
+    },
+    post = @Expression("propertyValue(_bean, _propertyName)")
+  )
+  */
+  public static long longPropertyValue(final Object bean, final String propertyName) {
+    return propertyAccessor(bean, propertyName).readLong(bean);
+  }
+
+  /**
+   * The value of the {@code double} property {@code propertyName} of {@code bean}, read without boxing.
+   * Properties of any other numeric primitive type, and of type {@code char}, are widened. If the property
+   * has another type, this is considered a programming error.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("hasProperty(_bean.class, _propertyName)"),
+      @Expression("propertyReadMethod(_bean.class, _propertyName).returnType.primitive"),
+      @Expression("propertyReadMethod(_bean.class, _propertyName).returnType != boolean")
+    },
+    post = @Expression("propertyValue(_bean, _propertyName)")
+  )
+  */
+  public static double doublePropertyValue(final Object bean, final String propertyName) {
+    return propertyAccessor(bean, propertyName).readDouble(bean);
+  }
+
+  /**
+   * The value of the {@code boolean} property {@code propertyName} of {@code bean}, read without boxing.
+   * If the property has another type, this is considered a programming error.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_bean != null"),
+      @Expression("hasProperty(_bean.class, _propertyName)"),
+      @Expression("propertyReadMethod(_bean.class, _propertyName).returnType == boolean")
+    },
+    post = @Expression("propertyValue(_bean, _propertyName)")
+  )
+  */
+  public static boolean booleanPropertyValue(final Object bean, final String propertyName) {
+    return propertyAccessor(bean, propertyName).readBoolean(bean);
+  }
+
+  /**
+   * The compiled {@link PropertyAccessor} for the property {@code propertyName} of the dynamic type of {@code bean}.
+   */
+  private static PropertyAccessor propertyAccessor(final Object bean, final String propertyName) {
+    assert preArgumentNotNull(bean, "bean");
+    return beanMetadata(bean.getClass()).propertyAccessor(propertyName);
+  }
+
 //  /**
 //   * Set the property {@code propertyName} of {@code bean} to {@code value}.
 //   * Anything that goes wrong is considered a programming error.
@@ -0,0 +1,310 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotNull;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
+
+
+/**
+ * <p>A nested property name (&quot;{@code propertyName1.propertyName2.propertyName3...}&quot;), resolved
+ *   against a root type. The name is parsed once, and each segment is resolved against the static type of the
+ *   previous property, as in {@link PropertyHelpers#hasProperty(Class, String)}. The resulting chain of
+ *   {@link PropertyDescriptor PropertyDescriptors} is kept, so that the path can be used to read nested values
+ *   without parsing or looking up anything again.</p>
+ * <p>Instances are obtained with {@link BeanMetadata#propertyPath(String)}, and are cached there. A simple
+ *   property name is a path of length 1. They are immutable and thread safe.</p>
+ *
+ * @author    PeopleWare n.v.
+ */
+/*
+@Invars({
+  @Expression("rootType != null"),
+  @Expression("name != null"),
+  @Expression("length > 0"),
+  @Expression("propertyDescriptor(0) == BeanMetadata.beanMetadata(rootType).propertyDescriptor(name.split(DOT_PATTERN)[0])"),
+  @Expression("for (int i = 1; i < length; i++) {propertyDescriptor(i) == " +
+                "BeanMetadata.beanMetadata(propertyDescriptor(i - 1).propertyType).propertyDescriptor(name.split(DOT_PATTERN)[i])}")
+})
+*/
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PropertyPath {
+
+  /**
+   * <p>The separator of the segments of a nested property name.</p>
+   * <p><code>DOT = &quot;{@value}&quot;</code></p>
+   */
+  public final static char DOT = '.';
+
+  /*<construction>*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * Parse {@code name}, and resolve it against {@code rootType}. If {@code name} has an empty segment, or one of
+   * the segments does not resolve to a property of the static type of the previous property, {@code null} is
+   * returned.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_rootType != null"),
+      @Expression("_name != null")
+    },
+    post = @Expression("result == null || (result.rootType == _rootType && result.name == _name)")
+  )
+  */
+  static PropertyPath resolve(final Class<?> rootType, final String name) {
+    assert preArgumentNotNull(rootType, "rootType");
+    assert preArgumentNotNull(name, "name");
+    List<PropertyDescriptor> chain = new ArrayList<>();
+    Class<?> currentType = rootType;
+    int start = 0;
+    while (true) {
+      int end = name.indexOf(DOT, start);
+      String segment = (end < 0) ? name.substring(start) : name.substring(start, end);
+      if (segment.isEmpty() || currentType == null) {
+        // empty segment, or the previous property is indexed only and has no static type
+        return null;
+      }
+      PropertyDescriptor pd = beanMetadata(currentType).propertyDescriptor(segment);
+      if (pd == null) {
+        return null;
+      }
+      chain.add(pd);
+      if (end < 0) {
+        return new PropertyPath(rootType, name, chain.toArray(new PropertyDescriptor[chain.size()]));
+      }
+      currentType = pd.getPropertyType();
+      start = end + 1;
+    }
+  }
+
+  private PropertyPath(final Class<?> rootType, final String name, final PropertyDescriptor[] propertyDescriptors) {
+    assert rootType != null;
+    assert name != null;
+    assert propertyDescriptors.length > 0;
+    $rootType = rootType;
+    $name = name;
+    $propertyDescriptors = propertyDescriptors;
+    boolean readable = true;
+    for (PropertyDescriptor pd : propertyDescriptors) {
+      if (pd.getReadMethod() == null) {
+        readable = false;
+        break;
+      }
+    }
+    $readable = readable;
+  }
+
+  /*</construction>*/
+
+
+
+  /*<property name="root type">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The type the path is resolved against.
+   */
+  /*
+  @Basic(invars = @Expression("rootType != null"))
+  */
+  public Class<?> getRootType() {
+    return $rootType;
+  }
+
+  private final Class<?> $rootType;
+
+  /*</property>*/
+
+
+
+  /*<property name="name">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The nested property name this is the resolution of.
+   */
+  /*
+  @Basic(invars = @Expression("name != null"))
+  */
+  public String getName() {
+    return $name;
+  }
+
+  private final String $name;
+
+  /*</property>*/
+
+
+
+  /*<property name="property descriptors">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * The number of segments in the path.
+   */
+  /*
+  @Basic(invars = @Expression("length > 0"))
+  */
+  public int getLength() {
+    return $propertyDescriptors.length;
+  }
+
+  /**
+   * The descriptor of the {@code index}-th segment of the path.
+   */
+  /*
+  @Basic(
+    pre    = {
+      @Expression("_index >= 0"),
+      @Expression("_index < length")
+    },
+    invars = @Expression("for (int i = 0; i < length; i++) {propertyDescriptor(i) != null}")
+  )
+  */
+  public PropertyDescriptor propertyDescriptor(final int index) {
+    return $propertyDescriptors[index];
+  }
+
+  /**
+   * The descriptor of the last segment of the path, i.e., the property the path leads to.
+   */
+  /*
+  @MethodContract(post = @Expression("propertyDescriptor(length - 1)"))
+  */
+  public PropertyDescriptor getLastPropertyDescriptor() {
+    return $propertyDescriptors[$propertyDescriptors.length - 1];
+  }
+
+  /**
+   * The static type of the property the path leads to.
+   */
+  /*
+  @MethodContract(post = @Expression("lastPropertyDescriptor.propertyType"))
+  */
+  public Class<?> getPropertyType() {
+    return getLastPropertyDescriptor().getPropertyType();
+  }
+
+  /*
+  @Invars({
+    @Expression("$propertyDescriptors != null"),
+    @Expression("$propertyDescriptors.length > 0"),
+    @Expression("! Arrays.contains($propertyDescriptors, null)")
+  })
+  */
+  private final PropertyDescriptor[] $propertyDescriptors;
+
+  /*</property>*/
+
+
+
+  /*<section name="reading">*/
+  //-------------------------------------------------------------------------
+
+  /**
+   * Do all the segments of the path have a read method?
+   */
+  /*
+  @MethodContract(post = @Expression("for (int i = 0; i < length; i++) {propertyDescriptor(i).readMethod != null}"))
+  */
+  public boolean isReadable() {
+    return $readable;
+  }
+
+  private final boolean $readable;
+
+  /**
+   * The value of the nested property of {@code root}. The traversal is null-safe: if any of the intermediate
+   * values is {@code null}, the result is {@code null}. Values of a primitive type are boxed.
+   * If the path is not readable, this is considered a programming error.
+   */
+  /*
+  @MethodContract(
+    pre  = {
+      @Expression("_root != null"),
+      @Expression("rootType.isInstance(_root)"),
+      @Expression("readable")
+    },
+    post = @Expression("length == 1 ? " +
+                         "propertyDescriptor(0).readMethod.invoke(_root) : " +
+                         "(propertyDescriptor(0).readMethod.invoke(_root) == null ? null : " +
+                           "BeanMetadata.beanMetadata(propertyDescriptor(0).propertyType)" +
+                             ".propertyPath(name.substring(name.indexOf(DOT) + 1))" +
+                             ".read(propertyDescriptor(0).readMethod.invoke(_root)))")
+  )
+  */
+  public Object read(final Object root) {
+    assert preArgumentNotNull(root, "root");
+    if (! $readable) {
+      throw new AssertionError("nested property " + $name + " of " + $rootType.getName() + " is not readable");
+    }
+    Object current = root;
+    for (PropertyAccessor accessor : accessors()) {
+      if (current == null) {
+        return null;
+      }
+      current = accessor.read(current);
+    }
+    return current;
+  }
+
+  /**
+   * The accessors of the segments, resolved against the static type of the previous segment. They are only
+   * created when the path is read for the first time, so that resolving a path, e.g., in
+   * {@link PropertyHelpers#hasProperty(Class, String)}, only needs introspection, and no access to the read
+   * methods.
+   */
+  /*
+  @MethodContract(
+    pre  = @Expression("readable"),
+    post = @Expression("for (int i = 0; i < length; i++) {result[i].propertyDescriptor == propertyDescriptor(i)}")
+  )
+  */
+  private PropertyAccessor[] accessors() {
+    assert $readable;
+    PropertyAccessor[] result = $accessors;
+    if (result == null) {
+      // races are benign: all threads create equivalent arrays of the same cached accessors
+      result = new PropertyAccessor[$propertyDescriptors.length];
+      Class<?> currentType = $rootType;
+      for (int i = 0; i < $propertyDescriptors.length; i++) {
+        result[i] = beanMetadata(currentType).propertyAccessor($propertyDescriptors[i].getName());
+        currentType = $propertyDescriptors[i].getPropertyType();
+      }
+      $accessors = result;
+    }
+    return result;
+  }
+
+  private volatile PropertyAccessor[] $accessors;
+
+  /*</section>*/
+
+
+
+  @Override
+  public String toString() {
+    return $rootType.getName() + "#" + $name;
+  }
+
+}
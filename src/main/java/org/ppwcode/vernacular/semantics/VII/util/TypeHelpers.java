@@ -17,10 +17,16 @@ limitations under the License.
 package org.ppwcode.vernacular.semantics.VII.util;
 
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.preArgumentNotEmpty;
 import static org.ppwcode.vernacular.exception.IV.util.ProgrammingErrorHelpers.unexpectedException;
@@ -409,6 +415,11 @@ public class TypeHelpers {
    *   {@code java.lang}.</p>
    * <p>This method handles member types with the dot notation (where {@link Class#forName(String)} requires
    *   <dfn>binary</dfn> &quot;$&quot; separation for member types).</p>
+   * <p>Array types are written as in source code, e.g., {@code int[]} or {@code String[][]}. A varargs
+   *   parameter type ({@code String...}) is the corresponding array type. Type arguments are ignored:
+   *   {@code java.util.List<String>} resolves to {@link java.util.List}.</p>
+   * <p>The type is loaded with the class loader of this class, as {@link Class#forName(String)} would.
+   *   See {@link #type(String, ClassLoader)}.</p>
    */
 /*
   @MethodContract(
@@ -418,58 +429,55 @@ public class TypeHelpers {
     },
     post = {
       @Expression("result != null"),
-      @Expression("result.canonicalName == _fqtn")
+      @Expression("result.canonicalName == _fqtn"),
+      @Expression("result == type(_fqtn, TypeHelpers.class.classLoader)")
     }
   )
 */
   public static <_Class_> Class<_Class_> type(String fqtn) {
+    return type(fqtn, OWN_CLASS_LOADER);
+  }
+
+  /**
+   * <p>{@link #type(String)}, but the type is loaded with {@code classLoader}, as with
+   *   {@link Class#forName(String, boolean, ClassLoader)}. {@code null} stands for the bootstrap class
+   *   loader.</p>
+   * <p>Results are cached per class loader, by the name they are requested with. The cache does not keep
+   *   class loaders, nor the types they loaded, from being garbage collected. Names that cannot be resolved
+   *   are cached too: repeated attempts fail fast, without asking the class loader again. A class that is
+   *   made available to the class loader after a failed attempt, will thus not be found with the same name.</p>
+   */
+/*
+  @MethodContract(
+    pre  = {
+      @Expression("fqtn != null && fqtn != EMPTY"),
+      @Expression(value = "true", description = "type with canonical name fqtn exists for classLoader")
+    },
+    post = {
+      @Expression("result != null"),
+      @Expression("result.canonicalName == _fqtn")
+    }
+  )
+*/
+  public static <_Class_> Class<_Class_> type(String fqtn, ClassLoader classLoader) {
     preArgumentNotEmpty(fqtn, "fqtn");
     Class<?> result = PRIMITIVE_TYPES_BY_NAME.get(fqtn);
     if (result == null) {
-      try {
-        try {
-          result = Class.forName(fqtn);
-        }
-        catch (ClassNotFoundException cnfExc) {
-          if (! fqtn.contains(".")) {
-            // there are no member classes in java.lang, are there?
-            try {
-              result = Class.forName("java.lang." + fqtn);
-            }
-            catch (ClassNotFoundException cnfExc2) {
-              unexpectedException(cnfExc2, "Since the name of the type we look for (\"" + fqtn + "\") does not contain " +
-                  "a dot, and was not found in the unnamed package, we assumed the class you intend to load should be " +
-                  "sought in java.lang, but we didn't find it their either.");
-            }
-          }
-          else { // let's try for member classes
-            // from right to left, replace "." with "$"
-            String[] names = fqtn.split("\\."); // regex
-            for (int i = names.length - 2; i >= 0; i--) {
-              StringBuilder build = new StringBuilder();
-              for (int j = 0; j < names.length; j++) {
-                build.append(names[j]);
-                if (j < names.length - 1) {
-                  build.append((j < i) ? "." : "$");
-                }
-              }
-              String tryThis = build.toString();
-              try {
-                result = Class.forName(tryThis);
-                break;
-              }
-              catch (ClassNotFoundException cnfExc2) {
-                // NOP; try with i--
-              }
-            }
-            if (result == null) { // if we get here without a result, we finally give up
-              throw new AssertionError("cannot find type with canonical name \"" + fqtn + "\"");
-            }
-          }
-        }
+      ConcurrentMap<String, Object> resolvedTypes = resolvedTypes(classLoader);
+      Object resolved = resolvedTypes.get(fqtn);
+      if (resolved instanceof Reference) {
+        result = (Class<?>)((Reference<?>)resolved).get(); // null if cleared: resolve again
       }
-      catch (LinkageError lErr) {
-        unexpectedException(lErr);
+      else if (resolved == TYPE_NOT_FOUND) {
+        throw new AssertionError("cannot find type with canonical name \"" + fqtn + "\"");
+      }
+      if (result == null) {
+        result = resolveType(fqtn, classLoader);
+        if (result == null) {
+          resolvedTypes.put(fqtn, TYPE_NOT_FOUND);
+          throw new AssertionError("cannot find type with canonical name \"" + fqtn + "\"");
+        }
+        resolvedTypes.put(fqtn, new WeakReference<Class<?>>(result));
       }
     }
     try {
@@ -483,6 +491,144 @@ public class TypeHelpers {
     }
   }
 
+  private static final ClassLoader OWN_CLASS_LOADER = TypeHelpers.class.getClassLoader();
+
+  /**
+   * Marker for a name that cannot be resolved, in the maps of {@link #resolvedTypes(ClassLoader)}.
+   */
+  private static final Object TYPE_NOT_FOUND = new Object();
+
+  /**
+   * The cache of {@link #type(String, ClassLoader)} for {@link #OWN_CLASS_LOADER}, which is used most.
+   * It is kept apart, to avoid the synchronization on {@link #RESOLVED_TYPES_BY_CLASS_LOADER}.
+   */
+  private static final ConcurrentMap<String, Object> OWN_RESOLVED_TYPES = new ConcurrentHashMap<>();
+
+  /**
+   * <p>The caches of {@link #type(String, ClassLoader)} for other class loaders. The class loaders are
+   *   weakly referenced keys. The types in the values are only weakly referenced too: they reference their
+   *   class loader, and would otherwise keep it alive.</p>
+   * <p>Access is synchronized on the map itself.</p>
+   */
+  private static final Map<ClassLoader, ConcurrentMap<String, Object>> RESOLVED_TYPES_BY_CLASS_LOADER =
+    new WeakHashMap<>();
+
+  /**
+   * The map of names to a {@link WeakReference} to the type with that name, or to {@link #TYPE_NOT_FOUND},
+   * for {@code classLoader}.
+   */
+  private static ConcurrentMap<String, Object> resolvedTypes(ClassLoader classLoader) {
+    if (classLoader == OWN_CLASS_LOADER) {
+      return OWN_RESOLVED_TYPES;
+    }
+    synchronized (RESOLVED_TYPES_BY_CLASS_LOADER) {
+      ConcurrentMap<String, Object> result = RESOLVED_TYPES_BY_CLASS_LOADER.get(classLoader);
+      if (result == null) {
+        result = new ConcurrentHashMap<>();
+        RESOLVED_TYPES_BY_CLASS_LOADER.put(classLoader, result);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * <p>The uncached resolution of {@link #type(String, ClassLoader)}, or {@code null} if {@code fqtn} cannot
+   *   be resolved. The name is parsed in a single pass from the end:</p>
+   * <ul>
+   *   <li>each trailing {@code []} adds an array dimension, and a trailing {@code ...} (varargs) adds one too;</li>
+   *   <li>type arguments ({@code <...>}) after the element type name are skipped, i.e., the type is erased;</li>
+   *   <li>what remains is the name of the element type, which is a primitive type, or is resolved with
+   *     {@link #resolveNamedType(String, ClassLoader)}.</li>
+   * </ul>
+   */
+  private static Class<?> resolveType(String fqtn, ClassLoader classLoader) {
+    int end = fqtn.length();
+    int dimensions = 0;
+    if (fqtn.endsWith("...")) {
+      dimensions++;
+      end -= 3;
+    }
+    while (end >= 2 && fqtn.charAt(end - 1) == ']' && fqtn.charAt(end - 2) == '[') {
+      dimensions++;
+      end -= 2;
+    }
+    if (end > 0 && fqtn.charAt(end - 1) == '>') {
+      int depth = 0;
+      int i = end - 1;
+      do {
+        char c = fqtn.charAt(i);
+        if (c == '>') {
+          depth++;
+        }
+        else if (c == '<') {
+          depth--;
+        }
+        i--;
+      } while (depth > 0 && i >= 0);
+      if (depth != 0) {
+        return null; // unbalanced type arguments
+      }
+      end = i + 1;
+    }
+    if (end == fqtn.length()) {
+      // no array dimensions, no type arguments
+      return resolveNamedType(fqtn, classLoader);
+    }
+    String elementTypeName = fqtn.substring(0, end);
+    if (elementTypeName.isEmpty() || elementTypeName.indexOf('[') >= 0 || elementTypeName.indexOf('<') >= 0) {
+      return null;
+    }
+    Class<?> result = PRIMITIVE_TYPES_BY_NAME.get(elementTypeName);
+    if (result == null) {
+      result = resolveNamedType(elementTypeName, classLoader);
+    }
+    for (int i = 0; (result != null) && (i < dimensions); i++) {
+      result = Array.newInstance(result, 0).getClass();
+    }
+    return result;
+  }
+
+  /**
+   * The resolution of a non-primitive type, that is not an array or parameterized type, or {@code null}
+   * if {@code fqtn} cannot be resolved. A name without a dot is sought in the unnamed package first, and
+   * then in {@code java.lang}. For a name with dots, we try all possible member type names, replacing
+   * dots with {@code $}, from right to left.
+   */
+  private static Class<?> resolveNamedType(String fqtn, ClassLoader classLoader) {
+    Class<?> result = forName(fqtn, classLoader);
+    if (result == null) {
+      int dot = fqtn.lastIndexOf('.');
+      if (dot < 0) {
+        // there are no member classes in java.lang, are there?
+        result = forName("java.lang." + fqtn, classLoader);
+      }
+      else { // let's try for member classes
+        char[] binaryName = fqtn.toCharArray();
+        for (; (result == null) && (dot >= 0); dot = fqtn.lastIndexOf('.', dot - 1)) {
+          binaryName[dot] = '$';
+          result = forName(new String(binaryName), classLoader);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * {@link Class#forName(String, boolean, ClassLoader)}, returning {@code null} if the class is not found.
+   */
+  private static Class<?> forName(String binaryName, ClassLoader classLoader) {
+    try {
+      return Class.forName(binaryName, true, classLoader);
+    }
+    catch (ClassNotFoundException cnfExc) {
+      return null;
+    }
+    catch (LinkageError lErr) {
+      unexpectedException(lErr);
+      return null; // keep compiler happy
+    }
+  }
+
 //  /**
 //   * Instantiate an object of a type
 //   * <code>prefixedFqcn(prefix, fqtn)</code>.
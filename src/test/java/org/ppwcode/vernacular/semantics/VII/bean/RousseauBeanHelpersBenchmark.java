@@ -0,0 +1,101 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.bean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.ppwcode.vernacular.exception.IV.CompoundSemanticException;
+import org.ppwcode.vernacular.semantics.VII.bean.stubs.StubRousseauBean;
+import org.ppwcode.vernacular.semantics.VII.bean.stubs.StubRousseauBeanB;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * <p>Time to traverse generated graphs of {@link RousseauBean RousseauBeans} of growing size. With a visited
+ *   set, the time should grow linearly with the number of beans in the graph.</p>
+ * <p>The graph is a chain of {@link StubRousseauBean StubRousseauBeans} over {@code property2}, where each bean
+ *   also has a {@link StubRousseauBeanB} in {@code property5} that refers back to a random earlier bean in
+ *   the chain, and to itself. All beans are upstream of the last one.</p>
+ * <p>This is not a unit test, and is not run by surefire. After {@code mvn test-compile}, run {@link #main(String[])},
+ *   or {@code org.openjdk.jmh.Main RousseauBeanHelpersBenchmark} with the test class path.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RousseauBeanHelpersBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int beans;
+
+  private StubRousseauBean root;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    StubRousseauBean[] chain = new StubRousseauBean[beans];
+    for (int i = 0; i < beans; i++) {
+      chain[i] = new StubRousseauBean();
+      StubRousseauBeanB side = new StubRousseauBeanB();
+      side.setProperty5(side);
+      if (i > 0) {
+        chain[i].setProperty2(chain[i - 1]);
+        side.setProperty2(chain[random.nextInt(i)]);
+      }
+      chain[i].setProperty5(side);
+    }
+    root = chain[beans - 1];
+  }
+
+  @Benchmark
+  public Set<RousseauBean> upstreamRousseauBeans() {
+    return RousseauBeanHelpers.upstreamRousseauBeans(root);
+  }
+
+  @Benchmark
+  public CompoundSemanticException normalizeAndCheckCivilityOnUpstreamRousseauBeans() {
+    return RousseauBeanHelpers.normalizeAndCheckCivilityOnUpstreamRousseauBeans(root);
+  }
+
+  @Benchmark
+  public CompoundSemanticException normalizeAndCheckCivilityOnUpstreamRousseauBeansInParallel() {
+    return RousseauBeanHelpers.normalizeAndCheckCivilityOnUpstreamRousseauBeans(root, ForkJoinPool.commonPool());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RousseauBeanHelpersBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
@@ -24,14 +24,19 @@ import org.ppwcode.vernacular.exception.IV.CompoundSemanticException;
 import org.ppwcode.vernacular.semantics.VII.bean.stubs.StubRousseauBean;
 import org.ppwcode.vernacular.semantics.VII.bean.stubs.StubRousseauBeanA;
 import org.ppwcode.vernacular.semantics.VII.bean.stubs.StubRousseauBeanB;
+import org.ppwcode.vernacular.semantics.VII.exception.CompoundPropertyException;
 import org.ppwcode.vernacular.semantics.VII.exception.PropertyException;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.beanutils.PropertyUtils.getProperty;
@@ -133,6 +138,29 @@ public class RousseauBeanHelpersTest {
     $rousseauBeans.forEach(this::testDirectUpstreamRousseauBeans);
   }
 
+  @Test
+  public void testUpstreamPlan() {
+    for (Class<?> type : new Class<?>[] {StubRousseauBean.class, StubRousseauBeanA.class, StubRousseauBeanB.class}) {
+      PropertyAccessor[] result = upstreamPlan(type);
+      assertNotNull(result);
+      assertSame(result, upstreamPlan(type));
+      Set<String> expected = new HashSet<>();
+      for (PropertyDescriptor pd : getPropertyDescriptors(type)) {
+        if (pd.getReadMethod() != null && RousseauBean.class.isAssignableFrom(pd.getPropertyType())) {
+          expected.add(pd.getName());
+        }
+      }
+      Set<String> names = new HashSet<>();
+      for (PropertyAccessor accessor : result) {
+        assertSame(type, accessor.getBeanType());
+        names.add(accessor.getPropertyName());
+      }
+      assertEquals(expected, names);
+      assertEquals(expected.size(), result.length);
+    }
+    assertEquals(0, upstreamPlan(String.class).length);
+  }
+
   public void testUpstreamRousseauBeans(RousseauBean rb) {
     Set<RousseauBean> result = upstreamRousseauBeans(rb);
     assertNotNull(result);
@@ -151,6 +179,94 @@ public class RousseauBeanHelpersTest {
     $rousseauBeans.forEach(this::testUpstreamRousseauBeans);
   }
 
+  /**
+   * The upstream beans of {@code rb} within {@code maxDepth}, following the recursive definition.
+   */
+  public static Set<RousseauBean> upstreamRousseauBeansWithinDepth(RousseauBean rb, int maxDepth) {
+    Set<RousseauBean> result = new HashSet<>();
+    result.add(rb);
+    if (maxDepth > 0) {
+      for (RousseauBean rbr : directUpstreamRousseauBeans(rb)) {
+        result.addAll(upstreamRousseauBeansWithinDepth(rbr, maxDepth - 1));
+      }
+    }
+    return result;
+  }
+
+  public void testUpstreamRousseauBeanStream(RousseauBean rb) {
+    Set<RousseauBean> expected = upstreamRousseauBeans(rb);
+    List<RousseauBean> result = upstreamRousseauBeanStream(rb).collect(Collectors.toList());
+    assertSame(rb, result.get(0));
+    assertEquals(expected.size(), result.size());
+    assertEquals(expected, new HashSet<>(result));
+    List<RousseauBean> parallelResult = upstreamRousseauBeanStream(rb).parallel().collect(Collectors.toList());
+    assertEquals(expected.size(), parallelResult.size());
+    assertEquals(expected, new HashSet<>(parallelResult));
+    assertTrue(upstreamRousseauBeanStream(rb).anyMatch(rbr -> rbr == rb));
+    assertSame(rb, upstreamRousseauBeanStream(rb).findFirst().get());
+    for (int maxDepth = 0; maxDepth < 5; maxDepth++) {
+      Set<RousseauBean> expectedWithinDepth = upstreamRousseauBeansWithinDepth(rb, maxDepth);
+      List<RousseauBean> resultWithinDepth = upstreamRousseauBeanStream(rb, maxDepth).collect(Collectors.toList());
+      assertEquals(expectedWithinDepth.size(), resultWithinDepth.size());
+      assertEquals(expectedWithinDepth, new HashSet<>(resultWithinDepth));
+      assertEquals(expectedWithinDepth, splitAndDrainBackwards(new UpstreamSpliterator(rb, maxDepth)));
+    }
+  }
+
+  /**
+   * Split {@code spliterator} as far as possible, and drain the last parts first, so that beans are found
+   * over longer paths before they are found over shorter ones. Each bean should only be reported once.
+   */
+  private static Set<RousseauBean> splitAndDrainBackwards(Spliterator<RousseauBean> spliterator) {
+    Set<RousseauBean> result = new HashSet<>();
+    Spliterator<RousseauBean> split = spliterator.trySplit();
+    if (split != null) {
+      result.addAll(splitAndDrainBackwards(split));
+    }
+    spliterator.forEachRemaining(rbr -> assertTrue(result.add(rbr)));
+    return result;
+  }
+
+  @Test
+  public void testUpstreamRousseauBeanStream() {
+    $rousseauBeans.forEach(this::testUpstreamRousseauBeanStream);
+    testUpstreamRousseauBeanStream(someRousseauBeanChain(100));
+    assertEquals(5000 + 4999, upstreamRousseauBeanStream(someRousseauBeanChain(5000)).parallel().count());
+  }
+
+  /**
+   * A chain over {@code property2}, where each bean also refers back to itself and to the end of the chain
+   * over a {@link StubRousseauBeanA} in {@code property4}.
+   */
+  public static StubRousseauBean someRousseauBeanChain(int length) {
+    StubRousseauBean first = new StubRousseauBean();
+    StubRousseauBean current = first;
+    for (int i = 1; i < length; i++) {
+      StubRousseauBean next = new StubRousseauBean();
+      StubRousseauBeanA side = new StubRousseauBeanA();
+      side.setPropertyLoop(side);
+      side.setProperty6(first);
+      next.setProperty2(current);
+      next.setProperty4(side);
+      current = next;
+    }
+    return current;
+  }
+
+  @Test
+  public void testUpstreamRousseauBeansChain() {
+    StubRousseauBean rb = someRousseauBeanChain(5000);
+    Set<RousseauBean> result = upstreamRousseauBeans(rb);
+    assertEquals(5000 + 4999, result.size());
+    assertTrue(result.contains(rb));
+    CompoundSemanticException cse = normalizeAndCheckCivilityOnUpstreamRousseauBeans(rb);
+    for (RousseauBean rbr : result) {
+      assertTrue(((StubRousseauBean)rbr).normalized);
+    }
+    assertEquals(result.stream().mapToInt(rbr -> ((StubRousseauBean)rbr).wildExceptions.getSize()).sum(),
+                 cse.getElementExceptions().size());
+  }
+
   public void testNormalizeAndCheckCivilityOnUpstreamRousseauBeans(RousseauBean rb) {
     CompoundSemanticException result = normalizeAndCheckCivilityOnUpstreamRousseauBeans(rb);
     assertNotNull(result);
@@ -167,6 +283,76 @@ public class RousseauBeanHelpersTest {
     $rousseauBeans.forEach(this::testNormalizeAndCheckCivilityOnUpstreamRousseauBeans);
   }
 
+  public void testNormalizeAndCheckCivilityOnUpstreamRousseauBeansInParallel(RousseauBean rb, ForkJoinPool pool) {
+    CompoundSemanticException result = normalizeAndCheckCivilityOnUpstreamRousseauBeans(rb, pool);
+    assertNotNull(result);
+    Set<PropertyException> expected = new HashSet<>();
+    for (RousseauBean rbr : upstreamRousseauBeans(rb)) {
+      assertTrue(((StubRousseauBean)rbr).normalized);
+      assertSame(Thread.currentThread(), ((StubRousseauBean)rbr).normalizedOn);
+      expected.addAll(((StubRousseauBean)rbr).wildExceptions.getElementExceptions());
+    }
+    assertEquals(expected, result.getElementExceptions());
+  }
+
+  @Test
+  public void testNormalizeAndCheckCivilityOnUpstreamRousseauBeansInParallel() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (RousseauBean rb : $rousseauBeans) {
+        testNormalizeAndCheckCivilityOnUpstreamRousseauBeansInParallel(rb, pool);
+      }
+      testNormalizeAndCheckCivilityOnUpstreamRousseauBeansInParallel(someRousseauBeanChain(5000), pool);
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testNormalizeAndCheckCivilityOnUpstreamRousseauBeansFirstViolations(RousseauBean rb) {
+    // StubRousseauBeanA adds a new exception on each call of wildExceptions(), so the total only grows;
+    // compare with the stored ones
+    int size = normalizeAndCheckCivilityOnUpstreamRousseauBeans(rb).getSize();
+    for (int maxViolations = 1; maxViolations <= size; maxViolations++) {
+      CompoundSemanticException result = normalizeAndCheckCivilityOnUpstreamRousseauBeans(rb, maxViolations);
+      assertNotNull(result);
+      assertEquals(maxViolations, result.getSize());
+      assertTrue(storedWildExceptions(upstreamRousseauBeans(rb)).containsAll(result.getElementExceptions()));
+    }
+  }
+
+  @Test
+  public void testNormalizeAndCheckCivilityOnUpstreamRousseauBeansFirstViolations() {
+    $rousseauBeans.forEach(this::testNormalizeAndCheckCivilityOnUpstreamRousseauBeansFirstViolations);
+    StubRousseauBean rb = someRousseauBeanChain(5000);
+    CompoundSemanticException result = normalizeAndCheckCivilityOnUpstreamRousseauBeans(rb, 1);
+    assertEquals(1, result.getSize());
+    assertTrue(rb.normalized);
+    assertFalse(rb.getProperty2().normalized);
+  }
+
+  @Test
+  public void testAllCivilized() {
+    for (RousseauBean rb : $rousseauBeans) {
+      assertFalse(allCivilized(rb));
+    }
+    // StubRousseauBeanA always has a wild exception; build a chain without side beans
+    StubRousseauBean first = new StubRousseauBean();
+    first.wildExceptions = new CompoundPropertyException(first, null, null, null);
+    StubRousseauBean rb = first;
+    for (int i = 1; i < 100; i++) {
+      StubRousseauBean next = new StubRousseauBean();
+      next.wildExceptions = new CompoundPropertyException(next, null, null, null);
+      next.setProperty2(rb);
+      rb = next;
+    }
+    assertTrue(allCivilized(rb));
+    first.wildExceptions.addElementException(new PropertyException(first, "property1", null, null));
+    assertFalse(allCivilized(rb));
+    assertFalse(allCivilized(first));
+    assertFalse(rb.normalized);
+  }
+
   public void testNormalize(Set<? extends RousseauBean> rbs) {
     normalize(rbs);
     for (RousseauBean rb : rbs) {
@@ -191,6 +377,31 @@ public class RousseauBeanHelpersTest {
     assertEquals(expected, result.getElementExceptions());
   }
 
+  public void testWildExceptionsFirstViolations(Set<? extends RousseauBean> rbs) {
+    int size = wildExceptions(rbs).getSize();
+    for (int maxViolations = 1; maxViolations <= size; maxViolations++) {
+      CompoundSemanticException result = wildExceptions(rbs, maxViolations);
+      assertNotNull(result);
+      assertEquals(maxViolations, result.getSize());
+      assertTrue(storedWildExceptions(rbs).containsAll(result.getElementExceptions()));
+    }
+  }
+
+  private static Set<PropertyException> storedWildExceptions(Set<? extends RousseauBean> rbs) {
+    Set<PropertyException> result = new HashSet<>();
+    for (RousseauBean rb : rbs) {
+      result.addAll(((StubRousseauBean)rb).wildExceptions.getElementExceptions());
+    }
+    return result;
+  }
+
+  @Test
+  public void testWildExceptionsFirstViolations() {
+    for (RousseauBean rb : $rousseauBeans) {
+      testWildExceptionsFirstViolations(associatedRousseauBeans(rb));
+    }
+  }
+
   @Test
   public void testWildExceptions() {
     for (RousseauBean rb : $rousseauBeans) {
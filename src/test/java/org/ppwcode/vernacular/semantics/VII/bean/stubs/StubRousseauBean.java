@@ -31,6 +31,7 @@ public class StubRousseauBean extends AbstractRousseauBean implements NumberOfPr
   @Override
   public void normalize() {
     normalized = true;
+    normalizedOn = Thread.currentThread();
   }
 
   @Override
@@ -46,6 +47,8 @@ public class StubRousseauBean extends AbstractRousseauBean implements NumberOfPr
 
   public boolean normalized;
 
+  public Thread normalizedOn;
+
 
 
 
@@ -0,0 +1,110 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.exception;
+
+import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+@SuppressWarnings("WeakerAccess")
+public class CapturedValueTest {
+
+  public static class CountingCloneable implements Cloneable {
+
+    public static final AtomicInteger CLONES = new AtomicInteger();
+
+    public CountingCloneable(int value) {
+      $value = value;
+    }
+
+    public int $value;
+
+    @Override
+    public CountingCloneable clone() {
+      CLONES.incrementAndGet();
+      try {
+        return (CountingCloneable)super.clone();
+      }
+      catch (CloneNotSupportedException exc) {
+        throw new AssertionError(exc);
+      }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof CountingCloneable && ((CountingCloneable)other).$value == $value;
+    }
+
+    @Override
+    public int hashCode() {
+      return $value;
+    }
+
+  }
+
+  @Test
+  public void testCapture1() {
+    for (CapturePolicy policy : CapturePolicy.values()) {
+      CapturedValue subject = CapturedValue.capture(policy, null);
+      assertSame(policy, subject.getCapturePolicy());
+      assertNull(subject.get());
+      assertTrue(subject.like(CapturedValue.capture(policy, null)));
+    }
+  }
+
+  @Test
+  public void testCapture2() {
+    CountingCloneable value = new CountingCloneable(1);
+    int before = CountingCloneable.CLONES.get();
+    CapturedValue lazy = CapturedValue.capture(CapturePolicy.SNAPSHOT_LAZILY, value);
+    CapturedValue shared = CapturedValue.capture(CapturePolicy.SHARE, value);
+    assertEquals(before, CountingCloneable.CLONES.get());
+    CapturedValue cloned = CapturedValue.capture(CapturePolicy.CLONE, value);
+    assertEquals(before + 1, CountingCloneable.CLONES.get());
+    value.$value = 2;
+    assertEquals(new CountingCloneable(1), cloned.get());
+    assertSame(value, shared.get());
+    Object lazyValue = lazy.get();
+    assertNotSame(value, lazyValue);
+    assertEquals(new CountingCloneable(2), lazyValue);
+  }
+
+  @Test
+  public void testLike1() {
+    CapturedValue one = CapturedValue.capture(CapturePolicy.CLONE, new CountingCloneable(1));
+    CapturedValue otherOne = CapturedValue.capture(CapturePolicy.SNAPSHOT_LAZILY, new CountingCloneable(1));
+    CapturedValue two = CapturedValue.capture(CapturePolicy.SHARE, new CountingCloneable(2));
+    otherOne.get(); // take the snapshot
+    int before = CountingCloneable.CLONES.get();
+    assertTrue(one.like(one));
+    assertTrue(one.like(otherOne));
+    assertTrue(otherOne.like(one));
+    assertFalse(one.like(two));
+    assertFalse(two.like(otherOne));
+    assertEquals(before, CountingCloneable.CLONES.get());
+  }
+
+}
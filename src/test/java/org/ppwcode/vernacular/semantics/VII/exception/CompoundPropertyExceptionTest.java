@@ -20,7 +20,15 @@ package org.ppwcode.vernacular.semantics.VII.exception;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
-
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -654,5 +662,197 @@ public class CompoundPropertyExceptionTest {
     subjects.forEach(CompoundPropertyExceptionTest::testThrowIfNotEmpty);
   }
 
-}
+  @Test
+  public void testGrowth() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    CompoundPropertyException subject = new CompoundPropertyException(origin, null, null, null);
+    Set<PropertyException> added = new HashSet<>();
+    for (int i = 0; i < 12; i++) {
+      PropertyException pe = new PropertyException(origin, i % 3 == 0 ? null : "stubProperty", "message " + i, null);
+      subject.addElementException(pe);
+      subject.addElementException(pe); // set semantics
+      added.add(pe);
+      assertEquals(added.size(), subject.getSize());
+      assertFalse(subject.isEmpty());
+      assertEquals(added, subject.getElementExceptions());
+      assertTrue(added.contains(subject.getAnElement()));
+      for (PropertyException a : added) {
+        assertTrue(subject.contains(a));
+        assertTrue(subject.getElementExceptionsMap().get(a.getPropertyName()).contains(a));
+      }
+      assertTrue(subject.getGeneralElementExceptions().size() > 0);
+      assertTypeInvariants(subject);
+    }
+    subject.close();
+    assertEquals(added, subject.getElementExceptions());
+    assertSame(subject.getElementExceptionsMap(), subject.getElementExceptionsMap());
+    assertTypeInvariants(subject);
+  }
+
+  @Test
+  public void testClosedInline() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    CompoundPropertyException subject = new CompoundPropertyException(origin, null, null, null);
+    PropertyException pe1 = new PropertyException(origin, "stubProperty", null, null);
+    PropertyException pe2 = new PropertyException(origin, null, null, null);
+    subject.addElementException(pe1);
+    subject.addElementException(pe2);
+    subject.close();
+    Map<String, Set<PropertyException>> result = subject.getElementExceptionsMap();
+    assertSame(result, subject.getElementExceptionsMap());
+    assertEquals(2, result.size());
+    assertEquals(Collections.singleton(pe1), result.get("stubProperty"));
+    assertEquals(Collections.singleton(pe2), subject.getGeneralElementExceptions());
+    assertTypeInvariants(subject);
+  }
+
+  @Test
+  public void testElementExceptionsCache() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    CompoundPropertyException subject = new CompoundPropertyException(origin, null, null, null);
+    assertTrue(subject.getElementExceptions().isEmpty());
+    Set<PropertyException> previous = subject.getElementExceptions();
+    for (int i = 0; i < 10; i++) {
+      PropertyException pe = new PropertyException(origin, null, "message " + i, null);
+      subject.addElementException(pe);
+      Set<PropertyException> result = subject.getElementExceptions();
+      assertNotSame(previous, result);
+      assertSame(result, subject.getElementExceptions());
+      assertEquals(i + 1, result.size());
+      subject.addElementException(pe);
+      assertSame(result, subject.getElementExceptions());
+      assertEquals(i + 1, subject.getSize());
+      previous = result;
+    }
+    try {
+      previous.clear();
+      fail();
+    }
+    catch (UnsupportedOperationException uoExc) {
+      // expected
+    }
+    subject.close();
+    assertSame(previous, subject.getElementExceptions());
+  }
+
+  @Test
+  public void testLiveViews() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    CompoundPropertyException subject = new CompoundPropertyException(origin, null, null, null);
+    Map<String, Set<PropertyException>> view = subject.getElementExceptionsMap();
+    Map<String, Set<PropertyException>> snapshot = subject.getElementExceptionsMapSnapshot();
+    assertTrue(view.isEmpty());
+    assertNull(subject.getGeneralElementExceptions());
+    PropertyException general = new PropertyException(origin, null, null, null);
+    subject.addElementException(general);
+    Set<PropertyException> generalView = subject.getGeneralElementExceptions();
+    assertEquals(Collections.singleton(general), generalView);
+    assertEquals(1, view.size());
+    for (int i = 0; i < 10; i++) {
+      subject.addElementException(new PropertyException(origin, "stubProperty", "message " + i, null));
+      assertSame(view, subject.getElementExceptionsMap());
+      assertEquals(2, view.size());
+      assertEquals(i + 1, view.get("stubProperty").size());
+      assertEquals(subject.getElementExceptionsMapSnapshot(), view);
+      assertEquals(Collections.singleton(general), generalView);
+      assertTypeInvariants(subject);
+    }
+    assertTrue(snapshot.isEmpty());
+    snapshot = subject.getElementExceptionsMapSnapshot();
+    subject.addElementException(new PropertyException(origin, null, "another message", null));
+    assertEquals(1, snapshot.get(null).size());
+    assertEquals(2, generalView.size());
+    assertEquals(2, view.get(null).size());
+    try {
+      view.put("stubProperty", new HashSet<>());
+      fail();
+    }
+    catch (UnsupportedOperationException uoExc) {
+      // expected
+    }
+    try {
+      view.get("stubProperty").clear();
+      fail();
+    }
+    catch (UnsupportedOperationException uoExc) {
+      // expected
+    }
+    try {
+      view.clear();
+      fail();
+    }
+    catch (UnsupportedOperationException uoExc) {
+      // expected
+    }
+    assertEquals(12, subject.getSize());
+  }
 
+  @Test
+  public void testLikenessIndex() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    CompoundPropertyException subject = new CompoundPropertyException(origin, null, null, null);
+    CompoundPropertyException other = new CompoundPropertyException(origin, null, null, null);
+    for (int i = 0; i < 50; i++) {
+      String propertyName = i % 2 == 0 ? null : "stubProperty";
+      subject.addElementException(new PropertyException(origin, propertyName, "message " + i, null));
+      other.addElementException(new SetterPropertyException(origin, "stubProperty", i, "message " + i, null));
+      assertTrue(subject.contains(new PropertyException(origin, propertyName, "message " + i, null)));
+      assertFalse(subject.contains(new PropertyException(origin, propertyName, "message " + (i + 1), null)));
+      assertTrue(other.contains(new SetterPropertyException(origin, "stubProperty", i, "message " + i, null)));
+      assertFalse(other.contains(new SetterPropertyException(origin, "stubProperty", -i - 1, "message " + i, null)));
+    }
+    CompoundPropertyException alike = new CompoundPropertyException(origin, null, null, null);
+    for (int i = 49; i >= 0; i--) {
+      alike.addElementException(new PropertyException(origin, i % 2 == 0 ? null : "stubProperty", "message " + i, null));
+    }
+    assertTrue(subject.like(alike));
+    assertTrue(alike.like(subject));
+    assertEquals(subject.likenessHashCode(), alike.likenessHashCode());
+    assertFalse(subject.like(other));
+    alike.addElementException(new PropertyException(origin, null, "one more", null));
+    assertFalse(subject.like(alike));
+  }
+
+  @Test
+  public void testLikenessIndexShared() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    CompoundPropertyException subject = new CompoundPropertyException(origin, null, null, null);
+    ArrayList<String> shared = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      subject.addElementException(new PropertyException(origin, null, "message " + i, null));
+    }
+    subject.addElementException(
+      new SetterPropertyException(origin, "stubProperty", shared, CapturePolicy.SHARE, "shared", null));
+    assertTrue(subject.contains(
+      new SetterPropertyException(origin, "stubProperty", new ArrayList<String>(), CapturePolicy.CLONE, "shared", null)));
+    // the shared value changes after the element exception is indexed
+    shared.add("changed");
+    ArrayList<String> changed = new ArrayList<>();
+    changed.add("changed");
+    assertTrue(subject.contains(
+      new SetterPropertyException(origin, "stubProperty", changed, CapturePolicy.CLONE, "shared", null)));
+    assertFalse(subject.contains(
+      new SetterPropertyException(origin, "stubProperty", new ArrayList<String>(), CapturePolicy.CLONE, "shared", null)));
+  }
+
+  @Test
+  public void testSerializationEmptyOpen() throws IOException, ClassNotFoundException {
+    CompoundPropertyException subject =
+      new CompoundPropertyException(PropertyExceptionTest.OriginStub.class, null, null, null);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(subject);
+    }
+    CompoundPropertyException result;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      result = (CompoundPropertyException)in.readObject();
+    }
+    assertTrue(result.isEmpty());
+    assertFalse(result.isClosed());
+    PropertyException pExc = new PropertyException(PropertyExceptionTest.OriginStub.class, null, null, null);
+    result.addElementException(pExc);
+    assertEquals(1, result.getSize());
+    assertTrue(result.getElementExceptions().contains(pExc));
+  }
+
+}
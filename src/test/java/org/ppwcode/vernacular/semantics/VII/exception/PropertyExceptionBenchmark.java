@@ -0,0 +1,93 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.exception;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.ppwcode.vernacular.semantics.VII.exception.PropertyException.stackless;
+
+
+/**
+ * <p>Throughput of collecting property exceptions as data, as in an implementation of
+ *   {@code wildExceptions()}, with and without stack traces.</p>
+ * <p>This is not a unit test, and is not run by surefire. After {@code mvn test-compile}, run {@link #main(String[])},
+ *   or {@code org.openjdk.jmh.Main PropertyExceptionBenchmark} with the test class path.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyExceptionBenchmark {
+
+  @Param({"1000", "10000"})
+  public int violations;
+
+  private PropertyExceptionTest.OriginStub origin;
+
+  @Setup
+  public void setUp() {
+    origin = new PropertyExceptionTest.OriginStub();
+    origin.setStubProperty("a value");
+  }
+
+  @Benchmark
+  public List<PropertyException> withStackTrace() {
+    List<PropertyException> result = new ArrayList<>(3 * violations);
+    for (int i = 0; i < violations; i++) {
+      result.add(new PropertyException(origin, "stubProperty", "NOT_VALID", null));
+      result.add(new ValuePropertyException(origin, "stubProperty", "NOT_VALID", null));
+      result.add(new SetterPropertyException(origin, "stubProperty", i, "NOT_VALID", null));
+    }
+    return result;
+  }
+
+  @Benchmark
+  public List<PropertyException> withoutStackTrace() {
+    List<PropertyException> result = new ArrayList<>(3 * violations);
+    for (int i = 0; i < violations; i++) {
+      final int vetoed = i;
+      result.add(stackless(() -> new PropertyException(origin, "stubProperty", "NOT_VALID", null)));
+      result.add(stackless(() -> new ValuePropertyException(origin, "stubProperty", "NOT_VALID", null)));
+      result.add(stackless(() -> new SetterPropertyException(origin, "stubProperty", vetoed, "NOT_VALID", null)));
+    }
+    return result;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PropertyExceptionBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
@@ -20,12 +20,18 @@ package org.ppwcode.vernacular.semantics.VII.exception;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.NonPublicStubClasses;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.Assert.*;
 import static org.ppwcode.vernacular.exception.IV.ApplicationException.DEFAULT_MESSAGE_KEY;
+import static org.ppwcode.vernacular.semantics.VII.exception.PropertyException.stackless;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
 import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasProperty;
 
 
@@ -357,5 +363,120 @@ public class PropertyExceptionTest {
 //    }
 //  }
 
-}
+  @Test
+  public void testPropertyExceptionPropertyAccessorObjectStringThrowable() {
+    PropertyAccessor property = beanMetadata(OriginStub.class).propertyAccessor("stubProperty");
+    OriginStub origin = new OriginStub();
+    Throwable cause = new Throwable();
+    PropertyException subject = new PropertyException(property, origin, "stub message", cause);
+    assertSame(origin, subject.getOrigin());
+    assertSame(OriginStub.class, subject.getOriginType());
+    assertEquals("stubProperty", subject.getPropertyName());
+    assertEquals("stub message", subject.getMessage());
+    assertSame(cause, subject.getCause());
+    assertTypeInvariants(subject);
+    assertTrue(subject.like(new PropertyException(origin, "stubProperty", "stub message", cause)));
+  }
+
+  @Test
+  public void testPropertyExceptionPropertyAccessorClassOfQStringThrowable() {
+    PropertyAccessor property = beanMetadata(OriginStub.class).propertyAccessor("stubProperty");
+    PropertyException subject = new PropertyException(property, OriginStub.class, null, null);
+    assertNull(subject.getOrigin());
+    assertSame(OriginStub.class, subject.getOriginType());
+    assertEquals("stubProperty", subject.getPropertyName());
+    assertEquals(DEFAULT_MESSAGE_KEY, subject.getMessage());
+    assertTypeInvariants(subject);
+  }
+
+  @Test(expected = AssertionError.class)
+  public void testPropertyExceptionPropertyAccessorObjectStringThrowable2() {
+    PropertyAccessor property = beanMetadata(OriginStub.class).propertyAccessor("stubProperty");
+    new PropertyException(property, new Object(), null, null);
+  }
+
+  @Test(expected = AssertionError.class)
+  public void testPropertyExceptionPropertyAccessorObjectStringThrowable3() {
+    PropertyAccessor property = beanMetadata(OriginStub.class).propertyAccessor("stubProperty");
+    new PropertyException(property, new OriginStub(), "", null);
+  }
+
+  @Test
+  public void testPropertyExceptionNonPublicOriginType() {
+    Object origin = NonPublicStubClasses.hidden();
+    PropertyException subject = new PropertyException(origin, "x", null, null);
+    assertSame(origin, subject.getOrigin());
+    assertEquals("x", subject.getPropertyName());
+    assertTypeInvariants(subject);
+  }
 
+  @Test
+  public void testStackless1() {
+    OriginStub origin = new OriginStub();
+    PropertyException subject = stackless(() -> new PropertyException(origin, "stubProperty", null, null));
+    assertSame(origin, subject.getOrigin());
+    assertEquals("stubProperty", subject.getPropertyName());
+    assertEquals(0, subject.getStackTrace().length);
+    assertTypeInvariants(subject);
+    ValuePropertyException value = stackless(() -> new ValuePropertyException(origin, "stubProperty", null, null));
+    assertEquals(0, value.getStackTrace().length);
+    SetterPropertyException setter =
+      stackless(() -> new SetterPropertyException(origin, "stubProperty", "vetoed", null, null));
+    assertEquals(0, setter.getStackTrace().length);
+    assertEquals("vetoed", setter.getVetoedValue());
+    assertTrue(new PropertyException(origin, "stubProperty", null, null).getStackTrace().length > 0);
+  }
+
+  @Test
+  public void testStackless2() {
+    OriginStub origin = new OriginStub();
+    PropertyException subject = stackless(() -> stackless(() -> new PropertyException(origin, null, null, null)));
+    assertEquals(0, subject.getStackTrace().length);
+    assertTrue(new PropertyException(origin, null, null, null).getStackTrace().length > 0);
+    try {
+      stackless(() -> {
+        throw new IllegalStateException();
+      });
+      fail();
+    }
+    catch (IllegalStateException isExc) {
+      // expected
+    }
+    assertTrue(new PropertyException(origin, null, null, null).getStackTrace().length > 0);
+  }
+
+  @Test
+  public void testLikenessHashCode() {
+    OriginStub origin = new OriginStub();
+    origin.setStubProperty(new Date(1000L));
+    Throwable cause = new Throwable();
+    PropertyException[] subjects = {
+      new PropertyException(origin, "stubProperty", "stub message", cause),
+      new PropertyException(origin, null, "stub message", cause),
+      new PropertyException(OriginStub.class, "stubProperty", null, null),
+      new ValuePropertyException(origin, "stubProperty", "stub message", cause),
+      new ValuePropertyException(origin, "stubProperty", CapturePolicy.SNAPSHOT_LAZILY, "stub message", cause),
+      new SetterPropertyException(origin, "stubProperty", new Date(2000L), "stub message", cause),
+      new SetterPropertyException(origin, "stubProperty", null, "stub message", cause)
+    };
+    PropertyException[] alike = {
+      new PropertyException(origin, "stubProperty", "stub message", cause),
+      new PropertyException(origin, null, "stub message", cause),
+      new PropertyException(OriginStub.class, "stubProperty", null, null),
+      new ValuePropertyException(origin, "stubProperty", CapturePolicy.SHARE, "stub message", cause),
+      new ValuePropertyException(origin, "stubProperty", "stub message", cause),
+      new SetterPropertyException(origin, "stubProperty", new Date(2000L), "stub message", cause),
+      new SetterPropertyException(origin, "stubProperty", null, "stub message", cause)
+    };
+    for (int i = 0; i < subjects.length; i++) {
+      assertTrue(subjects[i].like(alike[i]));
+      assertEquals(subjects[i].likenessHashCode(), alike[i].likenessHashCode());
+      for (PropertyException other : alike) {
+        if (subjects[i].like(other)) {
+          assertEquals(subjects[i].likenessHashCode(), other.likenessHashCode());
+        }
+      }
+    }
+  }
+
+}
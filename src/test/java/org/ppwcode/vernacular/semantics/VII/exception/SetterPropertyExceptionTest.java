@@ -21,6 +21,8 @@ import org.apache.commons.beanutils.PropertyUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Date;
@@ -30,6 +32,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.ppwcode.vernacular.exception.IV.ApplicationException.DEFAULT_MESSAGE_KEY;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
 import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasProperty;
 
 
@@ -341,5 +344,41 @@ public class SetterPropertyExceptionTest {
 //    }
 //  }
 
-}
+  @Test
+  public void testCapturePolicy1() {
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    origin.setStubProperty(new Date(1000L));
+    Date vetoed = new Date(1000L);
+    SetterPropertyException cloned =
+      new SetterPropertyException(origin, "stubProperty", vetoed, CapturePolicy.CLONE, null, null);
+    SetterPropertyException shared =
+      new SetterPropertyException(origin, "stubProperty", vetoed, CapturePolicy.SHARE, null, null);
+    SetterPropertyException lazy =
+      new SetterPropertyException(origin, "stubProperty", vetoed, CapturePolicy.SNAPSHOT_LAZILY, null, null);
+    vetoed.setTime(2000L);
+    assertEquals(new Date(1000L), cloned.getVetoedValue());
+    assertNotSame(cloned.getVetoedValue(), cloned.getVetoedValue());
+    assertSame(vetoed, shared.getVetoedValue());
+    assertEquals(new Date(2000L), lazy.getVetoedValue());
+    vetoed.setTime(3000L);
+    assertEquals(new Date(2000L), lazy.getVetoedValue());
+    assertNotSame(vetoed, lazy.getVetoedValue());
+  }
 
+  @Test
+  public void testSetterPropertyExceptionPropertyAccessor() {
+    PropertyAccessor property = beanMetadata(PropertyExceptionTest.OriginStub.class).propertyAccessor("stubProperty");
+    for (PropertyExceptionTest.OriginStub origin : origins) {
+      for (Object vetoedValue : vetoedValues) {
+        SetterPropertyException subject =
+          new SetterPropertyException(property, origin, vetoedValue, CapturePolicy.CLONE, null, null);
+        assertSame(origin, subject.getOrigin());
+        assertEquals("stubProperty", subject.getPropertyName());
+        assertEquals(origin.getStubProperty(), subject.getPropertyValue());
+        assertEquals(vetoedValue, subject.getVetoedValue());
+        assertTrue(subject.like(new SetterPropertyException(origin, "stubProperty", vetoedValue, null, null)));
+      }
+    }
+  }
+
+}
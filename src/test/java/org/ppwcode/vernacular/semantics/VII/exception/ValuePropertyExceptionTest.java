@@ -21,6 +21,10 @@ import org.apache.commons.beanutils.PropertyUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.CapturePolicy;
+import org.ppwcode.vernacular.semantics.VII.util.CloneHelpers;
+import org.ppwcode.vernacular.semantics.VII.util.PropertyAccessor;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Date;
@@ -30,6 +34,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.ppwcode.vernacular.exception.IV.ApplicationException.DEFAULT_MESSAGE_KEY;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
 import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasProperty;
 
 
@@ -255,5 +260,71 @@ public class ValuePropertyExceptionTest {
     }
   }
 
-}
+  @Test
+  public void testCapturePolicy1() {
+    Date value = new Date(1000L);
+    PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+    origin.setStubProperty(value);
+    ValuePropertyException cloned = new ValuePropertyException(origin, "stubProperty", CapturePolicy.CLONE, null, null);
+    ValuePropertyException shared = new ValuePropertyException(origin, "stubProperty", CapturePolicy.SHARE, null, null);
+    ValuePropertyException lazy =
+      new ValuePropertyException(origin, "stubProperty", CapturePolicy.SNAPSHOT_LAZILY, null, null);
+    assertSame(CapturePolicy.CLONE, cloned.getCapturePolicy());
+    assertSame(CapturePolicy.SHARE, shared.getCapturePolicy());
+    assertSame(CapturePolicy.SNAPSHOT_LAZILY, lazy.getCapturePolicy());
+    value.setTime(2000L);
+    assertEquals(new Date(1000L), cloned.getPropertyValue());
+    assertNotSame(cloned.getPropertyValue(), cloned.getPropertyValue());
+    assertSame(value, shared.getPropertyValue());
+    Object snapshot = lazy.getPropertyValue();
+    assertNotSame(value, snapshot);
+    assertEquals(new Date(2000L), snapshot);
+    value.setTime(3000L);
+    assertEquals(new Date(2000L), lazy.getPropertyValue());
+    assertNotSame(lazy.getPropertyValue(), lazy.getPropertyValue());
+  }
+
+  @Test
+  public void testCapturePolicy2() {
+    CapturePolicy original = CloneHelpers.getDefaultCapturePolicy();
+    try {
+      CloneHelpers.setDefaultCapturePolicy(CapturePolicy.SHARE);
+      Date value = new Date();
+      PropertyExceptionTest.OriginStub origin = new PropertyExceptionTest.OriginStub();
+      origin.setStubProperty(value);
+      ValuePropertyException subject = new ValuePropertyException(origin, "stubProperty", null, null);
+      assertSame(CapturePolicy.SHARE, subject.getCapturePolicy());
+      assertSame(value, subject.getPropertyValue());
+    }
+    finally {
+      CloneHelpers.setDefaultCapturePolicy(original);
+    }
+  }
 
+  @Test
+  public void testPropertyValue1() {
+    StubClass origin = new StubClass();
+    origin.setStubPropertyInt(42);
+    origin.setStubPropertyString("a string");
+    for (int i = 0; i < 3; i++) {
+      assertEquals(42, new ValuePropertyException(origin, "stubPropertyInt", null, null).getPropertyValue());
+      assertEquals("a string", new ValuePropertyException(origin, "stubPropertyString", null, null).getPropertyValue());
+    }
+  }
+
+  @Test
+  public void testValuePropertyExceptionPropertyAccessor() {
+    PropertyAccessor property = beanMetadata(PropertyExceptionTest.OriginStub.class).propertyAccessor("stubProperty");
+    for (PropertyExceptionTest.OriginStub origin : origins) {
+      ValuePropertyException subject = new ValuePropertyException(property, origin, "stub message", null);
+      assertSame(origin, subject.getOrigin());
+      assertEquals("stubProperty", subject.getPropertyName());
+      assertEquals(origin.getStubProperty(), subject.getPropertyValue());
+      assertTypeInvariants(subject);
+      assertTrue(subject.like(new ValuePropertyException(origin, "stubProperty", "stub message", null)));
+      ValuePropertyException shared = new ValuePropertyException(property, origin, CapturePolicy.SHARE, null, null);
+      assertSame(origin.getStubProperty(), shared.getPropertyValue());
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass;
+
+import java.beans.PropertyDescriptor;
+
+import static org.apache.commons.beanutils.PropertyUtils.getPropertyDescriptors;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.EXISTING_PROPERTY_NAMES;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.NON_EXISTING_PROPERTY_NAMES;
+
+
+@SuppressWarnings("WeakerAccess")
+public class BeanMetadataTest {
+
+  public void testBeanMetadata(Class<?> type) {
+    BeanMetadata result = beanMetadata(type);
+    assertEquals(type, result.getType());
+    assertSame(result, beanMetadata(type));
+    PropertyDescriptor[] expected = getPropertyDescriptors(type);
+    assertArrayEquals(expected, result.getPropertyDescriptors());
+    assertNotSame(result.getPropertyDescriptors(), result.getPropertyDescriptors());
+    assertEquals(expected.length, result.getNumberOfProperties());
+    for (PropertyDescriptor pd : expected) {
+      assertSame(pd, result.propertyDescriptor(pd.getName()));
+      assertTrue(result.hasSimpleProperty(pd.getName()));
+    }
+  }
+
+  @Test
+  public void testBeanMetadata1() {
+    testBeanMetadata(StubClass.class);
+    testBeanMetadata(CloneableStubClassA.class);
+    testBeanMetadata(Object.class);
+    testBeanMetadata(Runnable.class);
+  }
+
+  @Test
+  public void testPropertyDescriptor1() {
+    BeanMetadata subject = beanMetadata(StubClass.class);
+    for (String propertyName : EXISTING_PROPERTY_NAMES) {
+      PropertyDescriptor result = subject.propertyDescriptor(propertyName);
+      assertEquals(propertyName, result.getName());
+    }
+  }
+
+  @Test
+  public void testPropertyDescriptor2() {
+    BeanMetadata subject = beanMetadata(StubClass.class);
+    for (String propertyName : NON_EXISTING_PROPERTY_NAMES) {
+      assertNull(subject.propertyDescriptor(propertyName));
+      assertFalse(subject.hasSimpleProperty(propertyName));
+    }
+    assertNull(subject.propertyDescriptor(null));
+  }
+
+}
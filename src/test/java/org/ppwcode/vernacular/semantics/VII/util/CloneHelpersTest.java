@@ -115,5 +115,19 @@ public class CloneHelpersTest {
     assertFalse(result);
   }
 
-}
+  @Test
+  public void testDefaultCapturePolicy1() {
+    CapturePolicy original = CloneHelpers.getDefaultCapturePolicy();
+    Assert.assertSame(CapturePolicy.CLONE, original);
+    try {
+      for (CapturePolicy policy : CapturePolicy.values()) {
+        CloneHelpers.setDefaultCapturePolicy(policy);
+        Assert.assertSame(policy, CloneHelpers.getDefaultCapturePolicy());
+      }
+    }
+    finally {
+      CloneHelpers.setDefaultCapturePolicy(original);
+    }
+  }
 
+}
@@ -0,0 +1,85 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassB;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneStrategy.cloneStrategy;
+
+
+@SuppressWarnings("WeakerAccess")
+public class CloneStrategyTest {
+
+  public static class CloneableWithoutPublicClone implements Cloneable {
+    // clone() stays protected
+  }
+
+  @Test
+  public void testCloneStrategy1() {
+    assertSame(CloneStrategy.IDENTITY, cloneStrategy(String.class));
+    assertSame(CloneStrategy.IDENTITY, cloneStrategy(Object.class));
+    assertSame(CloneStrategy.NOT_KLONEABLE, cloneStrategy(CloneableWithoutPublicClone.class));
+    assertFalse(cloneStrategy(String.class).isKloneable());
+    assertFalse(cloneStrategy(CloneableWithoutPublicClone.class).isKloneable());
+    assertSame(cloneStrategy(CloneableStubClassA.class), cloneStrategy(CloneableStubClassA.class));
+  }
+
+  @Test
+  public void testCloneStrategy2() {
+    String subject = "a string";
+    assertSame(subject, cloneStrategy(String.class).safeReference(subject));
+  }
+
+  @Test
+  public void testCloneStrategy3() {
+    for (Object subject : new Object[] {new CloneableStubClassA(), new CloneableStubClassB(), new Date()}) {
+      CloneStrategy strategy = cloneStrategy(subject.getClass());
+      assertTrue(strategy.isKloneable());
+      Object result = strategy.klone(subject);
+      assertNotSame(subject, result);
+      assertSame(subject.getClass(), result.getClass());
+      Object reference = strategy.safeReference(subject);
+      assertNotSame(subject, reference);
+      assertSame(subject.getClass(), reference.getClass());
+    }
+  }
+
+  @Test
+  public void testCloneStrategy4() {
+    boolean noException = false;
+    try {
+      cloneStrategy(CloneableWithoutPublicClone.class).safeReference(new CloneableWithoutPublicClone());
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+}
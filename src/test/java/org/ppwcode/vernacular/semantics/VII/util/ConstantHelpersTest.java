@@ -23,8 +23,12 @@ import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA;
 import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassB;
 import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubInterfaceGamma;
 
+import java.lang.reflect.Field;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 import static org.ppwcode.vernacular.semantics.VII.util.ConstantHelpers.constant;
+import static org.ppwcode.vernacular.semantics.VII.util.ConstantHelpers.constants;
 import static org.ppwcode.vernacular.semantics.VII.util.ConstantHelpers.isConstant;
 import static org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA.STUB_PUBLIC_CONSTANT;
 
@@ -201,5 +205,23 @@ public class ConstantHelpersTest {
     assertTrue(result);
   }
 
-}
+  @Test
+  public void testConstants_Class1() {
+    Map<String, Object> result = constants(CloneableStubClassA.class);
+    assertEquals(1, result.size());
+    assertEquals(STUB_PUBLIC_CONSTANT, result.get("STUB_PUBLIC_CONSTANT"));
+  }
 
+  @Test
+  public void testConstants_Class2() {
+    Map<String, Object> result = constants(AbstractSubSubStubClass.class);
+    for (Field f : AbstractSubSubStubClass.class.getFields()) {
+      assertEquals(isConstant(AbstractSubSubStubClass.class, f.getName()), result.containsKey(f.getName()));
+    }
+    for (Map.Entry<String, Object> e : result.entrySet()) {
+      assertSame(constant(AbstractSubSubStubClass.class, e.getKey()), e.getValue());
+    }
+    assertEquals(StubInterfaceGamma.STUB_CONSTANT_GAMMA, result.get("STUB_CONSTANT_GAMMA"));
+  }
+
+}
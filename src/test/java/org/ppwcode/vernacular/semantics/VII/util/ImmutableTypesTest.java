@@ -0,0 +1,95 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.isKloneable;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.klone;
+import static org.ppwcode.vernacular.semantics.VII.util.CloneHelpers.safeReference;
+import static org.ppwcode.vernacular.semantics.VII.util.ImmutableTypes.isImmutable;
+import static org.ppwcode.vernacular.semantics.VII.util.ImmutableTypes.register;
+
+
+@SuppressWarnings("WeakerAccess")
+public class ImmutableTypesTest {
+
+  @Immutable
+  public static class AnnotatedFrozenList extends ArrayList<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    // clone() is public in ArrayList
+
+  }
+
+  public static class AnnotatedFrozenSubList extends AnnotatedFrozenList {
+
+    private static final long serialVersionUID = 1L;
+
+    // not annotated itself
+
+  }
+
+  public static class RegisteredFrozenList extends ArrayList<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    // clone() is public in ArrayList
+
+  }
+
+  @Test
+  public void testIsImmutable1() {
+    assertTrue(isImmutable(AnnotatedFrozenList.class));
+    assertFalse(isImmutable(AnnotatedFrozenSubList.class));
+    assertFalse(isImmutable(ArrayList.class));
+    assertFalse(isImmutable(CloneableStubClassA.class));
+  }
+
+  @Test
+  public void testSafeReference1() {
+    AnnotatedFrozenList subject = new AnnotatedFrozenList();
+    assertSame(subject, safeReference(subject));
+    assertTrue(isKloneable(AnnotatedFrozenList.class));
+    AnnotatedFrozenList clone = klone(subject);
+    assertNotSame(subject, clone);
+    assertSame(AnnotatedFrozenList.class, clone.getClass());
+    AnnotatedFrozenSubList sub = new AnnotatedFrozenSubList();
+    assertNotSame(sub, safeReference(sub));
+  }
+
+  @Test
+  public void testRegister1() {
+    RegisteredFrozenList subject = new RegisteredFrozenList();
+    assertNotSame(subject, safeReference(subject));
+    register(RegisteredFrozenList.class);
+    assertTrue(isImmutable(RegisteredFrozenList.class));
+    assertSame(subject, safeReference(subject));
+    assertTrue(isKloneable(RegisteredFrozenList.class));
+    register(RegisteredFrozenList.class);
+    assertSame(subject, safeReference(subject));
+  }
+
+}
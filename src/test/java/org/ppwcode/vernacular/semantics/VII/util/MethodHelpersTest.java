@@ -215,8 +215,7 @@ public class MethodHelpersTest {
     testMethodHelper(StubClass.class, "stubMethod(long)");
     testMethodHelper(StubClass.class, "stubMethod(boolean)");
     testMethodHelper(StubClass.class, "stubMethod(byte)");
- // MUDO deal with [] array types
-//    testMethodHelper(StubClass.class, "stubMethod(Object[])");
+    testMethodHelper(StubClass.class, "stubMethod(Object[])");
     // static methods
     testMethodHelper(StubClass.class, "stubStaticMethod()");
     testMethodHelper(StubClass.class, "stubStaticMethodWithReturn()");
@@ -233,8 +232,7 @@ public class MethodHelpersTest {
     testMethodHelper(StubClass.class, "stubStaticMethod(long)");
     testMethodHelper(StubClass.class, "stubStaticMethod(boolean)");
     testMethodHelper(StubClass.class, "stubStaticMethod(byte)");
- // MUDO deal with [] array types
-//    testMethodHelper(StubClass.class, "stubStaticMethod(Object[])");
+    testMethodHelper(StubClass.class, "stubStaticMethod(Object[])");
     // interface
     testMethodHelper(SuperSuperStubInterfaceA.class, "stubMethodC()");
   }
@@ -259,6 +257,15 @@ public class MethodHelpersTest {
     methodHelper(StubClass.class, "StubClass(Object, Object, float)");
   }
 
+  @Test
+  public void testMethodHelper6() throws NoSuchMethodException {
+    // covariant return type: the bridge method Object clone() is declared too
+    Method result = methodHelper(CloneableStubClassA.class, "clone()");
+    assertEquals(CloneableStubClassA.class.getDeclaredMethod("clone"), result);
+    assertEquals(CloneableStubClassA.class, result.getReturnType());
+    assertFalse(result.isBridge());
+  }
+
   public void testMethodHelper(Class<?> type, String signature) throws NoSuchMethodException {
     Method result = methodHelper(type, signature);
     assertNotNull(result);
@@ -425,8 +432,7 @@ public class MethodHelpersTest {
     testMethodClassOfQString(StubClass.class, "stubMethod(long)");
     testMethodClassOfQString(StubClass.class, "stubMethod(boolean)");
     testMethodClassOfQString(StubClass.class, "stubMethod(byte)");
- // MUDO deal with [] array types
-//    testMethodClassOfQString(StubClass.class, "stubMethod(Object[])");
+    testMethodClassOfQString(StubClass.class, "stubMethod(Object[])");
     // static methods
     testMethodClassOfQString(StubClass.class, "stubStaticMethod()");
     testMethodClassOfQString(StubClass.class, "stubStaticMethodWithReturn()");
@@ -443,8 +449,7 @@ public class MethodHelpersTest {
     testMethodClassOfQString(StubClass.class, "stubStaticMethod(long)");
     testMethodClassOfQString(StubClass.class, "stubStaticMethod(boolean)");
     testMethodClassOfQString(StubClass.class, "stubStaticMethod(byte)");
- // MUDO deal with [] array types
-//    testMethodClassOfQString(StubClass.class, "stubStaticMethod(Object[])");
+    testMethodClassOfQString(StubClass.class, "stubStaticMethod(Object[])");
     // inherited
     testMethodClassOfQString(StubClass.class, "toString()");
     testMethodClassOfQString(StubClass.class, "stubMethodA()");
@@ -489,6 +494,24 @@ public class MethodHelpersTest {
     method(AbstractSubSubStubClass.class, "privateStubMethodBet()");
   }
 
+  @Test
+  public void testMethodClassOfQString7() {
+    Method result = method(StubClass.class, "stubMethod(int, boolean, Object, String)");
+    assertSame(result, method(StubClass.class, "stubMethod(int, boolean, Object, String)"));
+    assertSame(result, method(StubClass.class, "stubMethod(int,boolean,    java.lang.Object,String)"));
+    assertSame(method(AbstractSubSubStubClass.class, "stubMethodAlpha()"),
+               method(AbstractSubSubStubClass.class, "stubMethodAlpha()"));
+  }
+
+  @Test
+  public void testHasPublicMethodClassOfQString2() {
+    for (int i = 0; i < 3; i++) {
+      assertFalse(hasPublicMethod(StubClass.class, "doesNotExist()"));
+      assertFalse(hasPublicMethod(AbstractSubSubStubClass.class, "privateStubMethodBet()"));
+      assertTrue(hasPublicMethod(StubClass.class, "stubMethod()"));
+    }
+  }
+
   public void testMethodClassOfQString(Class<?> type, String signature) {
     Method result = method(type, signature);
     assertNotNull(result);
@@ -591,8 +614,7 @@ public class MethodHelpersTest {
     testHasPublicMethodClassOfQString(StubClass.class, "stubMethod(long)");
     testHasPublicMethodClassOfQString(StubClass.class, "stubMethod(boolean)");
     testHasPublicMethodClassOfQString(StubClass.class, "stubMethod(byte)");
- // MUDO deal with [] array types
-//    testHasPublicMethodClassOfQString(StubClass.class, "stubMethod(Object[])");
+    testHasPublicMethodClassOfQString(StubClass.class, "stubMethod(Object[])");
     // static methods
     testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethod()");
     testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethodWithReturn()");
@@ -609,8 +631,7 @@ public class MethodHelpersTest {
     testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethod(long)");
     testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethod(boolean)");
     testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethod(byte)");
- // MUDO deal with [] array types
-//    testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethod(Object[])");
+    testHasPublicMethodClassOfQString(StubClass.class, "stubStaticMethod(Object[])");
     // methods that don't exist
     testHasPublicMethodClassOfQString(StubClass.class, "methodDoesNotExist()");
     testHasPublicMethodClassOfQString(StubClass.class, "stubMethod(org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass)");
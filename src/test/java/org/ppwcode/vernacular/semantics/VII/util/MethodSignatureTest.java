@@ -22,6 +22,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.Serializable;
@@ -67,8 +69,7 @@ public class MethodSignatureTest {
     methods.add(StubClass.class.getDeclaredMethod("stubMethod", Long.TYPE));
     methods.add(StubClass.class.getDeclaredMethod("stubMethod", Boolean.TYPE));
     methods.add(StubClass.class.getDeclaredMethod("stubMethod", Byte.TYPE));
- // MUDO deal with [] array types
-//    methods.add(StubClass.class.getDeclaredMethod("stubMethod(Object[])")));
+    methods.add(StubClass.class.getDeclaredMethod("stubMethod", Object[].class));
     // static methods
     methods.add(StubClass.class.getDeclaredMethod("stubStaticMethod"));
     methods.add(StubClass.class.getDeclaredMethod("stubStaticMethodWithReturn"));
@@ -84,8 +85,7 @@ public class MethodSignatureTest {
     methods.add(StubClass.class.getDeclaredMethod("stubStaticMethod", Long.TYPE));
     methods.add(StubClass.class.getDeclaredMethod("stubStaticMethod", Boolean.TYPE));
     methods.add(StubClass.class.getDeclaredMethod("stubStaticMethod", Byte.TYPE));
-    // MUDO deal with [] array types
-//  methods.add(StubClass.class.getDeclaredMethod("stubMethod(Object[])")));
+    methods.add(StubClass.class.getDeclaredMethod("stubStaticMethod", Object[].class));
 
     constructors = new LinkedList<>();
     constructors.add(StubClass.class.getDeclaredConstructor());
@@ -196,14 +196,58 @@ public class MethodSignatureTest {
     testMethodSignatureString("stubMethod(boolean)", "stubMethod", new Class<?>[] {Boolean.TYPE});
     testMethodSignatureString("stubMethod(byte)", "stubMethod", new Class<?>[] {Byte.TYPE});
     testMethodSignatureString("doesNotExist()", "doesNotExist", new Class<?>[] {});
- // MUDO deal with [] array types
-//    testMethodSignatureString("stubMethod(Object[])", "stubMethod", new Class<?>[] {});
+    testMethodSignatureString("stubMethod(Object[])", "stubMethod", new Class<?>[] {Object[].class});
+    testMethodSignatureString("stubMethod(int[], String[][])", "stubMethod", new Class<?>[] {int[].class, String[][].class});
+    testMethodSignatureString("stubMethod(String...)", "stubMethod", new Class<?>[] {String[].class});
+    testMethodSignatureString("stubMethod(java.util.Map<String, java.util.List<Integer>>, int)", "stubMethod",
+                              new Class<?>[] {java.util.Map.class, Integer.TYPE});
+    testMethodSignatureString("stubMethod(java.util.List<String>[])", "stubMethod", new Class<?>[] {java.util.List[].class});
+    testMethodSignatureString("stubMethod(org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassA[])",
+                              "stubMethod", new Class<?>[] {StubClass.StubClassA[].class});
     testMethodSignatureStringProblem("stubMethod");
     testMethodSignatureStringProblem("stubMethod(");
     testMethodSignatureStringProblem("stubMethod)");
     testMethodSignatureStringProblem("stubMethod(int");
     testMethodSignatureStringProblem("stubMethod(int Object)");
     testMethodSignatureStringProblem("stubMethod(Object,,int)");
+    testMethodSignatureStringProblem("stubMethod(Object,)");
+    testMethodSignatureStringProblem("stubMethod(int[)");
+    testMethodSignatureStringProblem("stubMethod(java.util.List<String)");
+  }
+
+  @Test
+  public void testOf() {
+    MethodSignature result = MethodSignature.of("stubMethod(int, boolean, Object, String)");
+    assertEquals(new MethodSignature("stubMethod(int, boolean, Object, String)"), result);
+    assertEquals(new MethodSignature("stubMethod(int, boolean, Object, String)").hashCode(), result.hashCode());
+    assertSame(result, MethodSignature.of("stubMethod(int, boolean, Object, String)"));
+    validateInvariants(result);
+    // the interned instance cannot be changed through its getters
+    result.getParameterTypes()[0] = Long.TYPE;
+    result.getParameterTypeNames()[0] = "long";
+    assertArrayEquals(new Class<?>[] {Integer.TYPE, Boolean.TYPE, Object.class, String.class},
+                      MethodSignature.of("stubMethod(int, boolean, Object, String)").getParameterTypes());
+    assertEquals("int", MethodSignature.of("stubMethod(int, boolean, Object, String)").getParameterTypeNames()[0]);
+  }
+
+  @Test
+  public void testOf2() {
+    MethodSignature.InternTable table = new MethodSignature.InternTable(8);
+    String hotSig = "hot(int)";
+    MethodSignature hot = table.of(hotSig);
+    for (int i = 0; i < 100; i++) {
+      String sig = "generated" + i + "(int)";
+      MethodSignature result = table.of(sig);
+      assertEquals(new MethodSignature(sig), result);
+      assertTrue(table.size() <= 8);
+      // a signature that is used often stays interned
+      assertSame(hot, table.of(hotSig));
+    }
+    assertEquals(8, table.size());
+    // a signature that was not used for a long time is evicted, but can be interned again
+    MethodSignature cold = table.of("generated0(int)");
+    assertEquals(new MethodSignature("generated0(int)"), cold);
+    assertSame(cold, table.of("generated0(int)"));
   }
 
   private void testMethodSignatureString(String sig, String methodName, Class<?>[] pTypes) {
@@ -0,0 +1,192 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.NonPublicStubClasses;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.NonPublicStubClasses.StackOverflowStub;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass;
+
+import java.beans.PropertyDescriptor;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
+
+
+@SuppressWarnings("WeakerAccess")
+public class PropertyAccessorTest {
+
+  public static StubClass someStubClass() {
+    StubClass subject = new StubClass(new CloneableStubClassA());
+    subject.setStubPropertyInt(42);
+    subject.setStubPropertyLong(-4242L);
+    subject.setStubPropertyShort((short)7);
+    subject.setStubPropertyByte((byte)8);
+    subject.setStubPropertyBoolean(true);
+    subject.setStubPropertyFloat(3.5f);
+    subject.setStubPropertyDouble(-2.25d);
+    subject.setStubPropertyChar('q');
+    subject.setStubPropertyString("a string");
+    subject.setStubPropertyDate(new Date());
+    return subject;
+  }
+
+  /**
+   * The getters of {@link CloneableStubClassA} properties return a clone, and {@link CloneableStubClassA}
+   * does not implement {@code equals}.
+   */
+  public static void assertSameValue(Object expected, Object result) {
+    if (expected instanceof CloneableStubClassA) {
+      assertSame(expected.getClass(), result.getClass());
+    }
+    else {
+      assertEquals(expected, result);
+    }
+  }
+
+  @Test
+  public void testPropertyAccessor1() throws Exception {
+    StubClass subject = someStubClass();
+    BeanMetadata metadata = beanMetadata(StubClass.class);
+    for (PropertyDescriptor pd : metadata.getPropertyDescriptors()) {
+      if (pd.getReadMethod() != null) {
+        PropertyAccessor result = metadata.propertyAccessor(pd.getName());
+        assertSame(StubClass.class, result.getBeanType());
+        assertSame(pd, result.getPropertyDescriptor());
+        assertEquals(pd.getName(), result.getPropertyName());
+        assertEquals(pd.getPropertyType(), result.getPropertyType());
+        assertSame(result, metadata.propertyAccessor(pd.getName()));
+        assertSameValue(pd.getReadMethod().invoke(subject), result.read(subject));
+      }
+    }
+  }
+
+  @Test
+  public void testPropertyAccessor2() {
+    BeanMetadata metadata = beanMetadata(StubClass.class);
+    boolean noException = false;
+    try {
+      metadata.propertyAccessor("stubWoProperty");
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testPropertyAccessor3() {
+    BeanMetadata metadata = beanMetadata(StubClass.class);
+    boolean noException = false;
+    try {
+      metadata.propertyAccessor("doesntExist");
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testPrimitiveReaders1() throws Exception {
+    StubClass subject = someStubClass();
+    BeanMetadata metadata = beanMetadata(StubClass.class);
+    for (PropertyDescriptor pd : metadata.getPropertyDescriptors()) {
+      if (pd.getReadMethod() != null) {
+        PropertyAccessor result = metadata.propertyAccessor(pd.getName());
+        Class<?> type = pd.getPropertyType();
+        Object expected = pd.getReadMethod().invoke(subject);
+        assertEquals(type == int.class || type == short.class || type == char.class || type == byte.class,
+                     result.isIntReadable());
+        assertEquals(result.isIntReadable() || type == long.class, result.isLongReadable());
+        assertEquals(type.isPrimitive() && type != boolean.class, result.isDoubleReadable());
+        assertEquals(type == boolean.class, result.isBooleanReadable());
+        if (result.isIntReadable()) {
+          assertEquals(expected instanceof Character ? (Character)expected : ((Number)expected).intValue(),
+                       result.readInt(subject));
+        }
+        if (result.isLongReadable()) {
+          assertEquals(expected instanceof Character ? (Character)expected : ((Number)expected).longValue(),
+                       result.readLong(subject));
+        }
+        if (result.isDoubleReadable()) {
+          assertEquals(expected instanceof Character ? (Character)expected : ((Number)expected).doubleValue(),
+                       result.readDouble(subject), 0.0d);
+        }
+        if (result.isBooleanReadable()) {
+          assertEquals(expected, result.readBoolean(subject));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPrimitiveReaders2() {
+    PropertyAccessor subject = beanMetadata(StubClass.class).propertyAccessor("stubPropertyString");
+    assertFalse(subject.isIntReadable());
+    assertFalse(subject.isLongReadable());
+    assertFalse(subject.isDoubleReadable());
+    assertFalse(subject.isBooleanReadable());
+    assertTrue(beanMetadata(StubClass.class).propertyAccessor("stubPropertyInt").isIntReadable());
+    boolean noException = false;
+    try {
+      subject.readDouble(someStubClass());
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testNonPublicBeanType() {
+    Object subject = NonPublicStubClasses.hidden();
+    BeanMetadata metadata = beanMetadata(subject.getClass());
+    PropertyAccessor x = metadata.propertyAccessor("x");
+    assertSame(subject.getClass(), x.getBeanType());
+    assertEquals(7, x.read(subject));
+    assertTrue(x.isLongReadable());
+    assertEquals(7L, x.readLong(subject));
+    assertEquals("y", metadata.propertyAccessor("y").read(subject));
+  }
+
+  @Test(expected = StackOverflowError.class)
+  public void testErrorIsNotWrapped1() {
+    beanMetadata(StackOverflowStub.class).propertyAccessor("stackOverflow").read(new StackOverflowStub());
+  }
+
+  @Test(expected = StackOverflowError.class)
+  public void testErrorIsNotWrapped2() {
+    beanMetadata(StackOverflowStub.class).propertyAccessor("stackOverflow").readInt(new StackOverflowStub());
+  }
+
+}
@@ -30,7 +30,12 @@ import static org.apache.commons.lang.ArrayUtils.contains;
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.booleanPropertyValue;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.doublePropertyValue;
 import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasProperty;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.intPropertyValue;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.longPropertyValue;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.propertyValue;
 import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.simplePropertyDescriptor;
 
 
@@ -398,6 +403,19 @@ public class PropertyHelpersTest {
       assertEquals(false, result);
     }
   }
+
+  @Test
+  public void testHasPropertyClassOfQString5() {
+    Class<?> type = StubClass.class;
+    for (String propertyName : EXISTING_PROPERTY_NAMES) {
+      // trailing dots make an empty last segment, which never resolves
+      assertEquals(false, hasProperty(type, propertyName + "."));
+      assertEquals(false, hasProperty(type, propertyName + ".."));
+    }
+    for (String propertyName : EXISTING_NESTED_PROPERTY_NAMES) {
+      assertEquals(false, hasProperty(type, propertyName + "."));
+    }
+  }
 //
 //  @Test
 //  public void testPropertyEditor1() {
@@ -482,5 +500,69 @@ public class PropertyHelpersTest {
 //    assertEquals(newValue, subject.getExceptionProperty());
 //  }
 
-}
+  @Test
+  public void testPropertyValue1() throws Exception {
+    StubClass subject = PropertyAccessorTest.someStubClass();
+    for (String propertyName : EXISTING_PROPERTY_NAMES) {
+      PropertyDescriptor pd = simplePropertyDescriptor(StubClass.class, propertyName);
+      if (pd.getReadMethod() != null) {
+        Object result = propertyValue(subject, propertyName);
+        PropertyAccessorTest.assertSameValue(pd.getReadMethod().invoke(subject), result);
+      }
+    }
+  }
+
+  @Test
+  public void testPropertyValue2() {
+    StubClass subject = PropertyAccessorTest.someStubClass();
+    String result = propertyValue(subject, "stubPropertyString", String.class);
+    assertEquals(subject.getStubPropertyString(), result);
+    Integer resultInt = propertyValue(subject, "stubPropertyInt", Integer.class);
+    assertEquals(Integer.valueOf(subject.getStubPropertyInt()), resultInt);
+  }
 
+  @Test
+  public void testPropertyValue3() {
+    StubClass subject = PropertyAccessorTest.someStubClass();
+    boolean noException = false;
+    try {
+      propertyValue(subject, "stubPropertyString", Date.class);
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testPrimitivePropertyValue1() {
+    StubClass subject = PropertyAccessorTest.someStubClass();
+    assertEquals(subject.getStubPropertyInt(), intPropertyValue(subject, "stubPropertyInt"));
+    assertEquals(subject.getStubPropertyShort(), intPropertyValue(subject, "stubPropertyShort"));
+    assertEquals(subject.getStubPropertyLong(), longPropertyValue(subject, "stubPropertyLong"));
+    assertEquals(subject.getStubPropertyInt(), longPropertyValue(subject, "stubPropertyInt"));
+    assertEquals(subject.getStubPropertyDouble(), doublePropertyValue(subject, "stubPropertyDouble"), 0.0d);
+    assertEquals(subject.getStubPropertyFloat(), doublePropertyValue(subject, "stubPropertyFloat"), 0.0d);
+    assertEquals(subject.getStubPropertyBoolean(), booleanPropertyValue(subject, "stubPropertyBoolean"));
+  }
+
+  @Test
+  public void testPrimitivePropertyValue2() {
+    StubClass subject = PropertyAccessorTest.someStubClass();
+    boolean noException = false;
+    try {
+      intPropertyValue(subject, "stubPropertyLong");
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+}
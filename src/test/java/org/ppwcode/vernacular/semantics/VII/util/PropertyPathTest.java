@@ -0,0 +1,124 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util;
+
+import org.junit.Test;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.CloneableStubClassA;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.NonPublicStubClasses;
+import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ppwcode.vernacular.semantics.VII.util.BeanMetadata.beanMetadata;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpers.hasProperty;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.EXISTING_NESTED_PROPERTIES_WITH_EDITOR;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.EXISTING_NESTED_PROPERTIES_WITHOUT_EDITOR;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.EXISTING_NESTED_PROPERTY_NAMES;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.ILLEGAL_NESTED_PATTERNS;
+import static org.ppwcode.vernacular.semantics.VII.util.PropertyHelpersTest.NON_EXISTING_PROPERTY_NAMES;
+
+
+@SuppressWarnings("WeakerAccess")
+public class PropertyPathTest {
+
+  @Test
+  public void testPropertyPath1() {
+    BeanMetadata metadata = beanMetadata(StubClass.class);
+    for (String propertyName : EXISTING_NESTED_PROPERTY_NAMES) {
+      PropertyPath result = metadata.propertyPath(propertyName);
+      assertNotNull(result);
+      assertSame(StubClass.class, result.getRootType());
+      assertEquals(propertyName, result.getName());
+      assertEquals(propertyName.split(PropertyHelpers.DOT_PATTERN).length, result.getLength());
+      assertSame(result.propertyDescriptor(result.getLength() - 1), result.getLastPropertyDescriptor());
+      assertSame(metadata.propertyDescriptor("stubProperty"), result.propertyDescriptor(0));
+      Class<?> expectedType = EXISTING_NESTED_PROPERTIES_WITH_EDITOR.containsKey(propertyName) ?
+                              EXISTING_NESTED_PROPERTIES_WITH_EDITOR.get(propertyName) :
+                              EXISTING_NESTED_PROPERTIES_WITHOUT_EDITOR.get(propertyName);
+      assertEquals(expectedType, result.getPropertyType());
+      assertTrue(result.isReadable());
+      assertSame(result, metadata.propertyPath(propertyName));
+    }
+  }
+
+  @Test
+  public void testPropertyPath2() {
+    BeanMetadata metadata = beanMetadata(StubClass.class);
+    for (String propertyName : ILLEGAL_NESTED_PATTERNS) {
+      assertNull(metadata.propertyPath(propertyName));
+    }
+    for (String propertyName : NON_EXISTING_PROPERTY_NAMES) {
+      assertNull(metadata.propertyPath(propertyName));
+      assertNull(metadata.propertyPath("stubProperty." + propertyName));
+      assertNull(metadata.propertyPath(propertyName + ".stubProperty"));
+    }
+  }
+
+  @Test
+  public void testRead1() {
+    StubClass inner = new StubClass();
+    inner.setStubPropertyInt(42);
+    StubClass subject = new StubClass(new CloneableStubClassA(inner));
+    PropertyPath path = beanMetadata(StubClass.class).propertyPath("stubProperty.stubProperty.stubPropertyInt");
+    assertEquals(42, path.read(subject));
+    PropertyPath simplePath = beanMetadata(StubClass.class).propertyPath("stubPropertyInt");
+    assertEquals(1, simplePath.getLength());
+    assertEquals(subject.getStubPropertyInt(), simplePath.read(subject));
+  }
+
+  @Test
+  public void testRead2() {
+    StubClass subject = new StubClass(new CloneableStubClassA());
+    PropertyPath path = beanMetadata(StubClass.class).propertyPath("stubProperty.stubProperty.stubPropertyInt");
+    assertNull(path.read(subject));
+  }
+
+  @Test
+  public void testRead3() {
+    PropertyPath path = beanMetadata(StubClass.class).propertyPath("stubWoProperty.stubProperty");
+    assertNotNull(path);
+    assertFalse(path.isReadable());
+    boolean noException = false;
+    try {
+      path.read(new StubClass(new CloneableStubClassA()));
+      noException = true; // can't do fail() here: that throws an AssertionError
+    }
+    catch (AssertionError aErr) {
+      // expected
+    }
+    if (noException) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testNonPublicBeanType() {
+    Object subject = NonPublicStubClasses.hidden();
+    assertTrue(hasProperty(subject.getClass(), "x"));
+    PropertyPath path = beanMetadata(subject.getClass()).propertyPath("x");
+    assertNotNull(path);
+    assertTrue(path.isReadable());
+    assertEquals(7, path.read(subject));
+    assertEquals(7, path.read(subject));
+  }
+
+}
@@ -22,11 +22,15 @@ import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassA;
 import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassB;
 import org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassInnerA;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Arrays;
 import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.ppwcode.vernacular.semantics.VII.util.TypeHelpers.*;
 
 
@@ -643,5 +647,87 @@ public class TypeHelpersTest {
 //    assertEquals(1, distance(StubInterfaceBeta.class, SuperSuperStubInterfaceA.class));
 //  }
 
-}
+  @Test
+  public void testType22() {
+    String fqtn = "int[]";
+    Class<?> result = type(fqtn);
+    assertEquals(int[].class, result);
+    testType(fqtn, result);
+    assertSame(result, type(fqtn));
+  }
+
+  @Test
+  public void testType23() {
+    String fqtn = "java.lang.String[][]";
+    Class<?> result = type(fqtn);
+    assertEquals(String[][].class, result);
+    testType(fqtn, result);
+    assertEquals(String[][].class, type("String[][]"));
+  }
+
+  @Test
+  public void testType24() {
+    String fqtn = "org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassA[]";
+    Class<?> result = type(fqtn);
+    assertEquals(StubClassA[].class, result);
+    testType(fqtn, result);
+  }
+
+  @Test
+  public void testType25() {
+    assertEquals(Object[].class, type("Object..."));
+    assertEquals(double[][].class, type("double[]..."));
+    assertEquals(java.util.Map.class, type("java.util.Map<String, java.util.List<Integer>>"));
+    assertEquals(java.util.List[].class, type("java.util.List<String>[]"));
+  }
+
+  @Test(expected = AssertionError.class)
+  public void testType26() {
+    type("int[");
+  }
+
+  @Test(expected = AssertionError.class)
+  public void testType27() {
+    type("java.util.List<String");
+  }
+
+  @Test(expected = AssertionError.class)
+  public void testType28() {
+    type("[]");
+  }
+
+  @Test
+  public void testTypeClassLoader1() {
+    ClassLoader own = TypeHelpers.class.getClassLoader();
+    String fqtn = "org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassA";
+    Class<?> result = type(fqtn, own);
+    assertSame(StubClassA.class, result);
+    assertSame(result, type(fqtn, own));
+    assertSame(result, type(fqtn));
+    assertSame(Integer.TYPE, type("int", own));
+    assertSame(String.class, type("String", null));
+  }
+
+  @Test
+  public void testTypeClassLoader2() {
+    // a class loader that does not see the test classes
+    ClassLoader other = new URLClassLoader(new URL[0], null);
+    String fqtn = "org.ppwcode.vernacular.semantics.VII.util.teststubs.StubClass.StubClassA";
+    assertSame(StubClassA.class, type(fqtn));
+    assertSame(String.class, type("java.lang.String", other));
+    for (int i = 0; i < 2; i++) { // the second time, the miss is cached
+      boolean noException = false;
+      try {
+        type(fqtn, other);
+        noException = true; // can't do fail() here: that throws an AssertionError
+      }
+      catch (AssertionError aErr) {
+        // expected
+      }
+      if (noException) {
+        fail();
+      }
+    }
+  }
 
+}
@@ -0,0 +1,55 @@
+/*<license>
+Copyright 2004 - 2016 by PeopleWare n.v..
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+</license>*/
+
+package org.ppwcode.vernacular.semantics.VII.util.teststubs;
+
+
+/**
+ * {@link #hidden()} is a bean of a type that is not public, with public read methods. {@link StackOverflowStub}
+ * has a read method that throws an {@link Error}.
+ */
+@SuppressWarnings("unused")
+public final class NonPublicStubClasses {
+
+  private NonPublicStubClasses() {
+    // NOP
+  }
+
+  static class Hidden {
+
+    public int getX() {
+      return 7;
+    }
+
+    public String getY() {
+      return "y";
+    }
+
+  }
+
+  public static class StackOverflowStub {
+
+    public int getStackOverflow() {
+      throw new StackOverflowError("stub");
+    }
+
+  }
+
+  public static Object hidden() {
+    return new Hidden();
+  }
+
+}